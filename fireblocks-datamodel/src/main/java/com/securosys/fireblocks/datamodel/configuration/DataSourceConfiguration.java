@@ -6,13 +6,17 @@ package com.securosys.fireblocks.datamodel.configuration;
 import com.zaxxer.hikari.HikariDataSource;
 import jakarta.persistence.EntityManagerFactory;
 import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -54,14 +58,32 @@ public class DataSourceConfiguration {
         this.password = password;
     }
 
+    private static int jdbcBatchSize;
+
+    /**
+     * Maximum number of statements Hibernate sends as one JDBC batch (0 disables batching).
+     */
+    @Value("${spring.datasource.jdbcBatchSize:50}")
+    public void setJdbcBatchSize(int jdbcBatchSize) {
+        DataSourceConfiguration.jdbcBatchSize = jdbcBatchSize;
+    }
+
     @Value("${spring.datasource.poolName:HikariPool}")
     public String datasourcePoolName;
 
     @Value("${spring.datasource.maximumPoolSize:10}")
     public int datasourceMaximumPoolSize;
 
+    @Value("${spring.datasource.migrateOnStartup:true}")
+    public boolean migrateOnStartup;
+
+    @Value("${spring.datasource.validateMigrations:true}")
+    public boolean validateMigrations;
+
     private static final String postgresMigrationFilePath = "classpath:com/securosys/fireblocks/datamodel/postgresql/migration";
     private static final String mariadbMigrationFilePath = "classpath:com/securosys/fireblocks/datamodel/mariadb/migration";
+    // Java migrations that work for all databases
+    private static final String commonMigrationFilePath = "classpath:com/securosys/fireblocks/datamodel/migration";
     private static final String postgresDriverClassName = "org.postgresql.Driver";
     private static final String mariadbDriverClassName = "org.mariadb.jdbc.Driver";
     private static final String h2DriverClassName = "org.h2.Driver";
@@ -81,18 +103,12 @@ public class DataSourceConfiguration {
         dataSource.setPoolName(datasourcePoolName);
         dataSource.setMaximumPoolSize(datasourceMaximumPoolSize);
 
-        Map<String, String> placeholders1 = new HashMap<>();
-        placeholders1.put("username", username);
-
         if (url.contains("jdbc:postgresql:")) {
             dataSource.setDriverClassName(postgresDriverClassName);
-            migrateFlyway(dataSource, postgresMigrationFilePath, placeholders1);
         } else if (url.contains("jdbc:mariadb:")) {
             dataSource.setDriverClassName(mariadbDriverClassName);
-            migrateFlyway(dataSource, mariadbMigrationFilePath, placeholders1);
         } else if (url.contains("jdbc:h2")){
             dataSource.setDriverClassName(h2DriverClassName);
-            migrateFlyway(dataSource, mariadbMigrationFilePath, placeholders1);
         } else {
             throw new Exception("Unsupported database url, expecting spring.datasource.url to contain with (jdbc:postgresql: or jdbc:mariadb:)");
         }
@@ -100,33 +116,52 @@ public class DataSourceConfiguration {
         return dataSource;
     }
 
-    private static void migrateFlyway(DataSource dataSource, String migrationFilePath, Map<String, String> placeholders1){
+    /**
+     * Migrates the schema once on startup, before the entity manager factory is created. Nodes that must not
+     * migrate (e.g. replicas started while another node is the leader) set {@code spring.datasource.migrateOnStartup}
+     * to false; they only validate the schema, unless {@code spring.datasource.validateMigrations} is false too.
+     */
+    @Bean(name = "flyway")
+    public Flyway flyway(@Qualifier("dataSource") DataSource dataSource) {
+        Map<String, String> placeholders1 = new HashMap<>();
+        placeholders1.put("username", username);
+
+        String migrationFilePath = url.contains("jdbc:postgresql:") ? postgresMigrationFilePath : mariadbMigrationFilePath;
         Flyway flyway = Flyway.configure()
                 .dataSource(dataSource)
-                .locations(migrationFilePath)
-                .validateOnMigrate(true)
+                .locations(migrationFilePath, commonMigrationFilePath)
+                .validateOnMigrate(validateMigrations)
                 .baselineOnMigrate(false)
                 .table("schema_version")
                 .sqlMigrationPrefix("v")
                 .placeholders(placeholders1)
                 .load();
-        flyway.migrate();
+
+        if (migrateOnStartup) {
+            flyway.migrate();
+        } else if (validateMigrations) {
+            flyway.validate();
+        }
+        return flyway;
     }
 
 
     @Bean(name = "entityManagerFactory")
+    @DependsOn("flyway")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory(EntityManagerFactoryBuilder builder,
-                                                                       @Qualifier("dataSource") DataSource dataSource) throws Exception {
+                                                                       @Qualifier("dataSource") DataSource dataSource,
+                                                                       ConfigurableListableBeanFactory beanFactory) {
 
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
-        em.setDataSource(initializeFirstDataSource());
+        em.setDataSource(dataSource);
         em.setPackagesToScan("com.securosys.fireblocks.datamodel.entities");
 
         JpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
         em.setJpaVendorAdapter(vendorAdapter);
         em.setJpaProperties(additionalProperties());
+        // attribute converters are created by Spring, so they get their settings injected
+        em.getJpaPropertyMap().put(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beanFactory));
 
-        em.setDataSource(dataSource);
         em.setPersistenceUnitName("SECUROSYS-UNIT");
 
         return em;
@@ -149,6 +184,14 @@ public class DataSourceConfiguration {
         Properties properties = new Properties();
         //properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MariaDBDialect");
         properties.setProperty("hibernate.hbm2ddl.auto", "none");
+        // inserts and updates of one transaction are grouped by table and sent as JDBC batches
+        properties.setProperty("hibernate.jdbc.batch_size", String.valueOf(jdbcBatchSize));
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
+        if (url != null && !url.contains("jdbc:postgresql:")) {
+            // MariaDB and H2 store UUIDs as binary(16) (v1.8.0), PostgreSQL uses its native uuid type
+            properties.setProperty("hibernate.type.preferred_uuid_jdbc_type", "BINARY");
+        }
 
         return properties;
     }
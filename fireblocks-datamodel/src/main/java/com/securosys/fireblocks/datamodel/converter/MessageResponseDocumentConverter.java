@@ -0,0 +1,45 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.datamodel.converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.securosys.fireblocks.datamodel.entities.MessageResponseDocument;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a {@link MessageResponseDocument} as compact JSON.
+ */
+@Converter
+public class MessageResponseDocumentConverter implements AttributeConverter<MessageResponseDocument, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public String convertToDatabaseColumn(MessageResponseDocument document) {
+        if (document == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize message response", e);
+        }
+    }
+
+    @Override
+    public MessageResponseDocument convertToEntityAttribute(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, MessageResponseDocument.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not deserialize message response", e);
+        }
+    }
+}
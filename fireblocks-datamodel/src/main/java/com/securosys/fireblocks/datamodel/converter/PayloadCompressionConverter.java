@@ -0,0 +1,107 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.datamodel.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses the Fireblocks payload of a message with Deflate before it is stored. A preset dictionary of the
+ * JSON keys and values every payload contains lets even short payloads shrink. Compressed values are stored as
+ * {@value #MARKER} followed by Base64, so the text column type stays the same; values without the marker (stored
+ * before or with compression disabled) are read as they are.
+ * <p>
+ * Compression is enabled by {@code spring.datasource.compressPayloads}. Hibernate creates the converter through
+ * Spring (see {@link com.securosys.fireblocks.datamodel.configuration.DataSourceConfiguration}), which injects the
+ * setting. Reading compressed values works regardless of the setting. The dictionary belongs to the marker:
+ * changing it requires a new marker.
+ */
+@Converter
+public class PayloadCompressionConverter implements AttributeConverter<String, String> {
+
+    public static final String MARKER = "dfl1:";
+
+    // most frequent content last, Deflate references it with the shortest distances
+    private static final byte[] DICTIONARY = ("\"txMetaDataSignatures\":[{\"certificatePath\":\"\",\"signature\":\"\"}]"
+            + "\"txMetaData\":\"\"\"metadata\":{}\"txId\":\"\"\"keyId\":\"\"\"signingDeviceKeyId\":\"\""
+            + "\"userAccessToken\":\"\"\"algorithm\":\"ECDSA_SECP256K1\"\"EDDSA_ED25519\""
+            + "\"type\":\"KEY_LINK_PROOF_OF_OWNERSHIP_REQUEST\"\"KEY_LINK_TX_SIGN_REQUEST\""
+            + "{\"tenantId\":\"\",\"messagesToSign\":[{\"message\":\"\",\"index\":0},{\"message\":\"\",\"index\":1}]")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final boolean compress;
+
+    public PayloadCompressionConverter(@Value("${spring.datasource.compressPayloads:false}") boolean compress) {
+        this.compress = compress;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String payload) {
+        if (!compress || payload == null || payload.isEmpty()) {
+            return payload;
+        }
+        String compressed = MARKER + Base64.getEncoder().encodeToString(deflate(payload.getBytes(StandardCharsets.UTF_8)));
+        // very short payloads may grow
+        return compressed.length() < payload.length() ? compressed : payload;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String stored) {
+        if (stored == null || !stored.startsWith(MARKER)) {
+            return stored;
+        }
+        byte[] compressed = Base64.getDecoder().decode(stored.substring(MARKER.length()));
+        return new String(inflate(compressed), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setDictionary(DICTIONARY);
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(DICTIONARY);
+                    } else if (inflater.needsInput()) {
+                        throw new IllegalArgumentException("Compressed payload is truncated");
+                    }
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Compressed payload is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
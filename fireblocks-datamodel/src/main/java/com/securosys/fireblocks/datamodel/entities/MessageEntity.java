@@ -3,6 +3,7 @@
 
 package com.securosys.fireblocks.datamodel.entities;
 
+import com.securosys.fireblocks.datamodel.converter.PayloadCompressionConverter;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -26,8 +27,9 @@ public class MessageEntity extends BaseEntity {
     private MessageEnvelopeEntity envelope;
 
     @Lob
+    @Convert(converter = PayloadCompressionConverter.class)
     @Column(name = "payload", nullable = false)
-    private String payload; // JSON string
+    private String payload; // JSON string, optionally compressed in the database
 
     @OneToOne(mappedBy = "message", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     private PayloadSignatureDataEntity payloadSignatureData;
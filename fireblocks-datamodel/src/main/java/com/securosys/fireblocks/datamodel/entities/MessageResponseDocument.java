@@ -0,0 +1,44 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.datamodel.entities;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response of a request (its signed messages) as stored in the {@code response_document} column of
+ * message_status, see {@link com.securosys.fireblocks.datamodel.converter.MessageResponseDocumentConverter}.
+ * Replaces the message_response and signed_message rows of the relational layout.
+ * <p>
+ * Hibernate detects changes only if a new document is set, so it must not be modified in place.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MessageResponseDocument {
+
+    private List<Message> signedMessages = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Message {
+
+        private String message;
+
+        private int index;
+
+        /** Null while the message is not signed yet. */
+        private String signature;
+
+        private String tsbRequestId;
+    }
+}
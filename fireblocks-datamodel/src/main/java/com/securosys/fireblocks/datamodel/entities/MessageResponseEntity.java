@@ -10,6 +10,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Response of a request in the relational layout, see {@link MessageStatusEntity#getResponseDocument()} for the
+ * document layout.
+ */
 @Entity
 @Table(name = "message_response")
 @Getter
@@ -23,7 +27,7 @@ public class MessageResponseEntity extends BaseEntity {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "status_id", nullable = false)
     private MessageStatusEntity status;
 
@@ -3,15 +3,17 @@
 
 package com.securosys.fireblocks.datamodel.entities;
 
+import com.securosys.fireblocks.datamodel.converter.MessageResponseDocumentConverter;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.util.Date;
 import java.util.UUID;
 
 @Entity
 @Table(name = "message_status")
+@DynamicUpdate
 @Builder
 @Getter
 @Setter
@@ -21,7 +23,6 @@ public class MessageStatusEntity extends BaseEntity{
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
-    @JdbcTypeCode(SqlTypes.VARCHAR)
     private UUID id;
 
     @Column(name = "request_id", nullable = false, unique = true)
@@ -37,6 +38,25 @@ public class MessageStatusEntity extends BaseEntity{
     @Column(name = "status", nullable = false)
     private String status;
 
-    @OneToOne(mappedBy = "status", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
-    private MessageResponseEntity response;
+    /** When the status sync polls the TSB for this request next; only set while the request is pending. */
+    @Column(name = "next_poll_at")
+    private Date nextPollAt;
+
+    /** Number of status syncs without a final result, used for the backoff of {@link #nextPollAt}. */
+    @Column(name = "poll_attempts", nullable = false)
+    private int pollAttempts;
+
+    /** Optimistic lock between signing workers and the status sync, which both update pending requests. */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * Signed messages of the request. Null if the request has no response yet or if it is stored in the
+     * relational layout ({@link MessageResponseEntity}), which is loaded separately only in that case.
+     */
+    @Lob
+    @Convert(converter = MessageResponseDocumentConverter.class)
+    @Column(name = "response_document")
+    private MessageResponseDocument responseDocument;
 }
@@ -33,4 +33,7 @@ public class SignedMessageEntity extends BaseEntity {
 
     @Column(name = "msg_index", nullable = false)
     private int index;
+
+    @Column(name = "tsb_request_id")
+    private String tsbRequestId;
 }
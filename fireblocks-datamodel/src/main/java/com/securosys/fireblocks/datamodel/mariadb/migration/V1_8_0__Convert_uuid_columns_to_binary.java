@@ -0,0 +1,257 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.datamodel.mariadb.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts all UUID columns of MariaDB and H2 from varchar(36) to binary(16), which roughly halves the size of
+ * the primary keys, unique keys and foreign keys. PostgreSQL uses its native uuid type from the start.
+ * <p>
+ * Per table, binary columns are added and filled from the text values, then a single ALTER TABLE drops the text
+ * columns, renames the binary ones and re-creates the keys. Adding the columns does not copy the table on MariaDB
+ * 10.3 and later, the final ALTER TABLE does, so each table is rebuilt once. The foreign keys are dropped before
+ * and added again after the conversion. H2 allows only one change per ALTER TABLE, so there the changes are run
+ * one by one.
+ * <p>
+ * <b>Downtime:</b> MariaDB DDL is not transactional and the tables are locked for writes while they are rebuilt.
+ * All instances must be stopped during the upgrade; the time needed grows with the number of stored requests.
+ * <p>
+ * The migration can be resumed: the column types are read before each step, tables that are already converted
+ * are skipped and missing foreign keys are added. After a failed run, remove the failed entry from
+ * {@code schema_version} (or run {@code flyway repair}) and start the server again.
+ */
+public class V1_8_0__Convert_uuid_columns_to_binary extends BaseJavaMigration {
+
+    // parents before children, so that a foreign key can be added together with the conversion of its table
+    private static final List<UuidTable> TABLES = List.of(
+            new UuidTable("message_status", null,
+                    new UuidColumn("id", true, null),
+                    new UuidColumn("request_id", false, "uq_message_status_request_id")),
+            new UuidTable("message_response",
+                    new ForeignKey("fk_message_response_status", "status_id", "message_status"),
+                    new UuidColumn("id", true, null),
+                    new UuidColumn("status_id", false, "uq_message_response_status")),
+            new UuidTable("signed_message",
+                    new ForeignKey("fk_signed_message_response", "response_id", "message_response"),
+                    new UuidColumn("id", true, null),
+                    new UuidColumn("response_id", false, null)),
+            new UuidTable("message_envelope", null,
+                    new UuidColumn("id", true, null),
+                    new UuidColumn("request_id", false, "uq_message_envelope_request_id")),
+            new UuidTable("message",
+                    new ForeignKey("fk_message_envelope", "envelope_id", "message_envelope"),
+                    new UuidColumn("id", true, null),
+                    new UuidColumn("envelope_id", false, "uq_message_envelope")),
+            new UuidTable("payload_signature_data",
+                    new ForeignKey("fk_payload_signature_message", "message_id", "message"),
+                    new UuidColumn("id", true, null),
+                    new UuidColumn("message_id", false, "uq_payload_signature_message")));
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean h2 = connection.getMetaData().getDatabaseProductName().toUpperCase().contains("H2");
+
+        try (Statement statement = connection.createStatement()) {
+            for (UuidTable table : TABLES) {
+                ForeignKey foreignKey = table.foreignKey;
+                if (foreignKey != null && hasForeignKey(connection, table.name, foreignKey.name)
+                        && !(isConverted(connection, table) && isConverted(connection, table(foreignKey.referencedTable)))) {
+                    statement.execute("alter table " + table.name
+                            + (h2 ? " drop constraint " : " drop foreign key ") + foreignKey.name);
+                }
+            }
+
+            for (UuidTable table : TABLES) {
+                convert(connection, statement, table, h2);
+            }
+
+            for (UuidTable table : TABLES) {
+                if (table.foreignKey != null && !hasForeignKey(connection, table.name, table.foreignKey.name)) {
+                    statement.execute("alter table " + table.name + " " + table.foreignKey.addClause());
+                }
+            }
+        }
+    }
+
+    private static void convert(Connection connection, Statement statement, UuidTable table, boolean h2)
+            throws SQLException {
+        Map<String, Integer> types = columnTypes(connection, table.name);
+        List<UuidColumn> pending = table.columns.stream()
+                .filter(column -> !isBinary(types.get(column.name)))
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        alter(statement, table.name, pending.stream()
+                .filter(column -> !types.containsKey(column.binaryName()))
+                .map(column -> "add column " + column.binaryName() + " binary(16) null")
+                .toList(), h2);
+
+        // a text column is only missing if an earlier run on H2 stopped between dropping and renaming
+        List<String> values = pending.stream()
+                .filter(column -> types.containsKey(column.name))
+                .map(column -> column.binaryName() + " = " + (h2 ? "hextoraw" : "unhex")
+                        + "(replace(" + column.name + ", '-', ''))")
+                .toList();
+        if (!values.isEmpty()) {
+            statement.execute("update " + table.name + " set " + String.join(", ", values));
+        }
+
+        List<String> changes = new ArrayList<>();
+        for (UuidColumn column : pending) {
+            if (column.primaryKey && hasPrimaryKey(connection, table.name)) {
+                changes.add("drop primary key");
+            }
+            if (column.uniqueKey != null) {
+                changes.add((h2 ? "drop constraint if exists " : "drop index if exists ") + column.uniqueKey);
+            }
+            if (types.containsKey(column.name)) {
+                changes.add("drop column " + column.name);
+            }
+            if (h2) {
+                changes.add("alter column " + column.binaryName() + " rename to " + column.name);
+                changes.add("alter column " + column.name + " set not null");
+            } else {
+                changes.add("change column " + column.binaryName() + " " + column.name + " binary(16) not null");
+            }
+            if (column.primaryKey) {
+                changes.add("add primary key (" + column.name + ")");
+            }
+            if (column.uniqueKey != null) {
+                changes.add("add constraint " + column.uniqueKey + " unique (" + column.name + ")");
+            }
+        }
+        if (table.foreignKey != null && !hasForeignKey(connection, table.name, table.foreignKey.name)) {
+            changes.add(table.foreignKey.addClause());
+        }
+        alter(statement, table.name, changes, h2);
+    }
+
+    /**
+     * Runs the changes as one ALTER TABLE, or one by one on H2.
+     */
+    private static void alter(Statement statement, String table, List<String> changes, boolean h2) throws SQLException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (h2) {
+            for (String change : changes) {
+                statement.execute("alter table " + table + " " + change);
+            }
+        } else {
+            statement.execute("alter table " + table + " " + String.join(", ", changes));
+        }
+    }
+
+    private static boolean isConverted(Connection connection, UuidTable table) throws SQLException {
+        Map<String, Integer> types = columnTypes(connection, table.name);
+        return table.columns.stream().allMatch(column -> isBinary(types.get(column.name)));
+    }
+
+    private static boolean isBinary(Integer type) {
+        return type != null && (type == Types.BINARY || type == Types.VARBINARY);
+    }
+
+    private static Map<String, Integer> columnTypes(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        Map<String, Integer> types = new HashMap<>();
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                identifier(metaData, table), null)) {
+            while (columns.next()) {
+                types.put(columns.getString("COLUMN_NAME").toLowerCase(), columns.getInt("DATA_TYPE"));
+            }
+        }
+        return types;
+    }
+
+    private static boolean hasPrimaryKey(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet keys = metaData.getPrimaryKeys(connection.getCatalog(), connection.getSchema(),
+                identifier(metaData, table))) {
+            return keys.next();
+        }
+    }
+
+    private static boolean hasForeignKey(Connection connection, String table, String name) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet keys = metaData.getImportedKeys(connection.getCatalog(), connection.getSchema(),
+                identifier(metaData, table))) {
+            while (keys.next()) {
+                if (name.equalsIgnoreCase(keys.getString("FK_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // H2 stores unquoted names in upper case
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase() : name;
+    }
+
+    private static UuidTable table(String name) {
+        return TABLES.stream().filter(table -> table.name.equals(name)).findFirst().orElseThrow();
+    }
+
+    private static class UuidTable {
+        private final String name;
+        private final ForeignKey foreignKey;
+        private final List<UuidColumn> columns;
+
+        UuidTable(String name, ForeignKey foreignKey, UuidColumn... columns) {
+            this.name = name;
+            this.foreignKey = foreignKey;
+            this.columns = List.of(columns);
+        }
+    }
+
+    private static class UuidColumn {
+        private final String name;
+        private final boolean primaryKey;
+        private final String uniqueKey;
+
+        UuidColumn(String name, boolean primaryKey, String uniqueKey) {
+            this.name = name;
+            this.primaryKey = primaryKey;
+            this.uniqueKey = uniqueKey;
+        }
+
+        String binaryName() {
+            return name + "_bin";
+        }
+    }
+
+    private static class ForeignKey {
+        private final String name;
+        private final String column;
+        private final String referencedTable;
+
+        ForeignKey(String name, String column, String referencedTable) {
+            this.name = name;
+            this.column = column;
+            this.referencedTable = referencedTable;
+        }
+
+        String addClause() {
+            return "add constraint " + name + " foreign key (" + column + ") references " + referencedTable
+                    + " (id) on delete cascade";
+        }
+    }
+}
@@ -0,0 +1,76 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.datamodel.migration;
+
+import com.securosys.fireblocks.datamodel.converter.MessageResponseDocumentConverter;
+import com.securosys.fireblocks.datamodel.entities.MessageResponseDocument;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves the message_response and signed_message rows of every status into the response_document column added by
+ * v1.7.0, then deletes them (signed_message through ON DELETE CASCADE). Works in chunks, so that large tables are
+ * never loaded at once. Runs for MariaDB, H2 and PostgreSQL, IDs are passed through as returned by the driver.
+ * <p>
+ * Java migrations are always named with an upper case "V", unlike the SQL migrations ({@code sqlMigrationPrefix}).
+ */
+public class V1_7_1__Move_message_responses_to_document extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        MessageResponseDocumentConverter converter = new MessageResponseDocumentConverter();
+
+        try (PreparedStatement selectResponses = connection.prepareStatement(
+                     "select id, status_id from message_response order by status_id limit " + CHUNK_SIZE);
+             PreparedStatement selectMessages = connection.prepareStatement(
+                     "select message, msg_index, signature, tsb_request_id from signed_message " +
+                             "where response_id = ? order by msg_index");
+             PreparedStatement updateStatus = connection.prepareStatement(
+                     "update message_status set response_document = ? where id = ?");
+             PreparedStatement deleteResponse = connection.prepareStatement(
+                     "delete from message_response where id = ?")) {
+
+            // moved rows are deleted, so every query returns the next chunk
+            while (true) {
+                List<Object[]> responses = new ArrayList<>();
+                try (ResultSet rs = selectResponses.executeQuery()) {
+                    while (rs.next()) {
+                        responses.add(new Object[]{rs.getObject(1), rs.getObject(2)});
+                    }
+                }
+                if (responses.isEmpty()) {
+                    return;
+                }
+
+                for (Object[] response : responses) {
+                    MessageResponseDocument document = new MessageResponseDocument();
+                    selectMessages.setObject(1, response[0]);
+                    try (ResultSet rs = selectMessages.executeQuery()) {
+                        while (rs.next()) {
+                            document.getSignedMessages().add(new MessageResponseDocument.Message(
+                                    rs.getString(1), rs.getInt(2), rs.getString(3), rs.getString(4)));
+                        }
+                    }
+
+                    updateStatus.setString(1, converter.convertToDatabaseColumn(document));
+                    updateStatus.setObject(2, response[1]);
+                    updateStatus.addBatch();
+                    deleteResponse.setObject(1, response[0]);
+                    deleteResponse.addBatch();
+                }
+                updateStatus.executeBatch();
+                deleteResponse.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1 @@
+alter table message_status add column version bigint not null default 0;
@@ -0,0 +1 @@
+alter table signed_message add column tsb_request_id varchar(255) null;
@@ -0,0 +1,6 @@
+create table scheduler_lock (
+    name varchar(64) not null,
+    locked_by varchar(255) not null,
+    locked_until datetime(3) not null,
+    primary key (name)
+) engine=InnoDB;
@@ -0,0 +1 @@
+alter table message_status add column response_document longtext null;
@@ -0,0 +1 @@
+create index idx_message_status_status_mod_ts on message_status (status, ctl_mod_ts);
@@ -0,0 +1,5 @@
+create table scheduler_lock (
+    name varchar(64) primary key,
+    locked_by varchar(255) not null,
+    locked_until timestamp(3) not null
+);
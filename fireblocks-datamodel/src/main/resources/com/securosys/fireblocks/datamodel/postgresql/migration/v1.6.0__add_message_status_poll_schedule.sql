@@ -0,0 +1,6 @@
+alter table message_status add column next_poll_at timestamp(3) null;
+alter table message_status add column poll_attempts int not null default 0;
+
+update message_status set next_poll_at = current_timestamp(3) where status = 'PENDING_SIGN';
+
+create index idx_message_status_status_next_poll on message_status (status, next_poll_at);
@@ -0,0 +1,120 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.securosys.fireblocks.business.dto.customServer.Message;
+import com.securosys.fireblocks.business.dto.customServer.MessageEnvelope;
+import com.securosys.fireblocks.business.dto.customServer.MessagePayload;
+import com.securosys.fireblocks.business.dto.customServer.MessagesRequest;
+import com.securosys.fireblocks.business.dto.customServer.PayloadSignatureData;
+import com.securosys.fireblocks.business.dto.customServer.TransportMetadata;
+import com.securosys.fireblocks.business.util.JsonUtil;
+import com.securosys.fireblocks.business.util.MessagePayloadParser;
+import com.securosys.fireblocks.datamodel.entities.RequestType;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former parsing of a /messagesToSign body (body parsed twice, every payload parsed twice and a new
+ * validator factory per request) with the single pass of {@link JsonUtil} and {@link MessagePayloadParser}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessagesRequestParsingBenchmark {
+
+    private static final String PAYLOAD = """
+            {
+              "tenantId": "0a4cc5e4-182d-5c9c-b771-c8bc8636733c",
+              "txId": "955a13d1-9e56-403e-91fd-6d28918641e5",
+              "keyId": "6ea827ed-cb5e-4e17-906c-96cc1c0f4e8c",
+              "userAccessToken": "dummy-access-token",
+              "signingDeviceKeyId": "benchmark-key",
+              "algorithm": "ECDSA_SECP256K1",
+              "type": "KEY_LINK_TX_SIGN_REQUEST",
+              "messagesToSign": [
+                {
+                  "message": "32168959a247dddd04ece6f6a646a689c9548b6bbdb32e8567343bfcfaa5bda1",
+                  "index": 0
+                }
+              ],
+              "metadata": {
+                "source": "benchmark"
+              }
+            }
+            """;
+
+    @Param({"1", "10"})
+    private int envelopes;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonUtil jsonUtil = new JsonUtil(objectMapper);
+    private final MessagePayloadParser payloadParser = new MessagePayloadParser();
+
+    private String body;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<MessageEnvelope> messages = new ArrayList<>();
+        for (int i = 0; i < envelopes; i++) {
+            messages.add(new MessageEnvelope(
+                    new Message(new PayloadSignatureData("ab".repeat(256), "benchmark-service"), PAYLOAD),
+                    new TransportMetadata(UUID.randomUUID(), RequestType.KEY_LINK_TX_SIGN_REQUEST)));
+        }
+        body = objectMapper.writeValueAsString(new MessagesRequest(messages));
+    }
+
+    @Benchmark
+    public void formerParsing(Blackhole blackhole) throws Exception {
+        JsonNode root = objectMapper.readTree(body);
+        ArrayNode messagesArray = (ArrayNode) root.get("messages");
+
+        MessagesRequest request = objectMapper.readValue(body, MessagesRequest.class);
+        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+        Validator validator = factory.getValidator();
+        blackhole.consume(validator.validate(request));
+
+        for (int i = 0; i < request.getMessages().size(); i++) {
+            MessageEnvelope envelope = request.getMessages().get(i);
+            String rawPayload = messagesArray.get(i).get("message").get("payload").asText();
+            String service = envelope.getMessage().getPayloadSignatureData().getService();
+
+            JsonNode payloadNode = objectMapper.readTree(rawPayload);
+            ((ObjectNode) payloadNode).put("rawPayload", rawPayload);
+            ((ObjectNode) payloadNode).put("serviceName", service);
+            blackhole.consume(objectMapper.writeValueAsString(payloadNode));
+
+            blackhole.consume(objectMapper.readValue(envelope.getMessage().getPayload(), MessagePayload.class));
+        }
+    }
+
+    @Benchmark
+    public void singlePassParsing(Blackhole blackhole) throws Exception {
+        MessagesRequest request = jsonUtil.getObjectFromJsonString(body, MessagesRequest.class);
+
+        for (MessageEnvelope envelope : request.getMessages()) {
+            String service = envelope.getMessage().getPayloadSignatureData().getService();
+            blackhole.consume(payloadParser.parse(envelope.getMessage().getPayload(), service, true));
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.UUID;
 
@@ -75,6 +76,15 @@ public class MessageController extends BaseController{
         return ResponseEntity.ok(statusService.getStatuses(request));
     }
 
+    @PostMapping(value = "/messagesStatus", params = "longPollTimeoutSeconds", produces = {MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Get updates on requested messages, waiting for a status change of a pending message",
+            description = "Returns as soon as one of the requested messages changes its status, or after the timeout.",
+            responses = { @ApiResponse(responseCode = "200", description = SUCCESSFUL_OPERATION) })
+    public DeferredResult<MessagesStatusResponse> messagesStatusLongPoll(@Valid @RequestBody MessagesStatusRequest request,
+                                                                         @RequestParam long longPollTimeoutSeconds) {
+        return statusService.getStatusesLongPoll(request, longPollTimeoutSeconds);
+    }
+
     @PostMapping(value = "/signAllPendingMessages", produces = {MediaType.APPLICATION_JSON_VALUE})
     @Operation(summary = "Send all pending messages to the HSM for signing",
             responses = { @ApiResponse(responseCode = "200", description = SUCCESSFUL_OPERATION) })
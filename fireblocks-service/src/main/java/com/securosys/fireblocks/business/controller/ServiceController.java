@@ -44,4 +44,12 @@ public class ServiceController extends BaseController{
 
         return new ResponseEntity<>(infoService.fetchLogs(), HttpStatus.OK);
     }
+
+    @GetMapping(value = "/statistics", produces = {MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Get runtime statistics",
+            description = "Returns usage statistics of internal resources, such as the TSB connection pool.",
+            responses = { @ApiResponse(responseCode = "200", description = SUCCESSFUL_OPERATION) })
+    public ResponseEntity<Map<String, Object>> getStatistics() {
+        return new ResponseEntity<>(infoService.getStatistics(), HttpStatus.OK);
+    }
 }
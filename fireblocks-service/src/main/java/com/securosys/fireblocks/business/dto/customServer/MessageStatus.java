@@ -10,6 +10,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -47,4 +48,14 @@ public class MessageStatus {
             default -> tsbStatus;
         };
     }
+
+    /**
+     * Combine the statuses of all messages of one request: FAILED as soon as one message failed,
+     * SIGNED once all messages are signed, PENDING_SIGN otherwise
+     * @param statuses local statuses of the single messages
+     */
+    public static String aggregate(List<String> statuses) {
+        if (statuses.isEmpty() || statuses.contains(FAILED)) return FAILED;
+        return statuses.stream().allMatch(SIGNED::equals) ? SIGNED : PENDING_SIGN;
+    }
 }
@@ -3,6 +3,7 @@
 
 package com.securosys.fireblocks.business.dto.customServer;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,4 +22,14 @@ public class SignedMessage {
 
     @NotNull
     private String signature;
+
+    /**
+     * ID of the TSB sign request of this message, used to poll its approval. Not part of the Fireblocks API.
+     */
+    @JsonIgnore
+    private String tsbRequestId;
+
+    public SignedMessage(String message, Integer index, String signature) {
+        this(message, index, signature, null);
+    }
 }
@@ -49,6 +49,8 @@ public enum BusinessReason implements Reason {
 	// this is the reason if a subsystem failed. For example one of the webservices returned an error
 	ERROR_IN_SUBSYSTEM("res.error.in.subystem", 700),
 	ERROR_IN_HSM("res.error.in.hsm", 701),
+	// the TSB is considered down or overloaded, the call was refused without contacting it
+	ERROR_TSB_UNAVAILABLE("res.error.tsb.unavailable", 702),
 	ERROR_IO("res.error.io", 703),
 	ERROR_FILE_NOT_FOUND("res.error.file.not.found", 704);
 
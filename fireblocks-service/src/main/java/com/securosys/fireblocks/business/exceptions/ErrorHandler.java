@@ -39,6 +39,9 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 		@ApiResponse( responseCode = "500", description = "Server Error",
 				content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
 						schema = @Schema(implementation = ReasonBasedExceptionDto.class))),
+		@ApiResponse( responseCode = "503", description = "TSB unavailable",
+				content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+						schema = @Schema(implementation = ReasonBasedExceptionDto.class))),
 		@ApiResponse( responseCode = "501", description = "Implementation Error",
 				content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
 						schema = @Schema(implementation = ReasonBasedExceptionDto.class)))})
@@ -74,6 +77,9 @@ public class ErrorHandler {
 
 	private static ResponseEntity<ReasonBasedExceptionDto> generateResponseForBusinessException(ReasonBasedExceptionDto dto) {
 		String errorCode = dto.getErrorCode().toString();
+		if(dto.getErrorCode() == BusinessReason.ERROR_TSB_UNAVAILABLE.getErrorCode()) {
+			return new ResponseEntity<>(dto, HttpStatus.SERVICE_UNAVAILABLE);
+		}
 		if(errorCode.startsWith("45")) {
 			return new ResponseEntity<>(dto, HttpStatus.FORBIDDEN);
 		}
@@ -8,8 +8,10 @@ import com.securosys.fireblocks.business.dto.response.LicenseResponseDto;
 import com.securosys.fireblocks.business.dto.response.RequestStatusResponseDto;
 import com.securosys.fireblocks.business.exceptions.BusinessException;
 import com.securosys.fireblocks.business.exceptions.BusinessReason;
+import com.securosys.fireblocks.business.service.ApprovalTracker;
+import com.securosys.fireblocks.business.service.LicenseCache;
 import com.securosys.fireblocks.business.service.TsbService;
-import com.securosys.fireblocks.business.util.CryptoUtil;
+import com.securosys.fireblocks.business.service.VerificationKeyCache;
 import com.securosys.fireblocks.configuration.CustomServerProperties;
 import com.securosys.fireblocks.configuration.TsbProperties;
 import lombok.RequiredArgsConstructor;
@@ -18,18 +20,29 @@ import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.*;
-import java.security.cert.X509Certificate;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class HsmFacade {
 
+    // Signature objects are not thread safe, but can be reused by re-initializing them for every verification
+    private static final ThreadLocal<Signature> VERIFY_SIGNATURE = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance("SHA256withRSA");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA256withRSA is not available", e);
+        }
+    });
+
     private final TsbService tsbService;
     private final CustomServerProperties properties;
     private final TsbProperties tsbProperties;
-    private final CryptoUtil cryptoUtil;
+    private final VerificationKeyCache verificationKeyCache;
+    private final ApprovalTracker approvalTracker;
+    private final LicenseCache licenseCache;
 
     public String generateKeyPair(String label, String password, String algorithm, String curveOid, int size) {
         tsbService.createOrUpdateKey(label, password, algorithm, curveOid, size);
@@ -38,6 +51,16 @@ public class HsmFacade {
     }
 
     public RequestStatusResponseDto sign(String label, String password, String payload, String algorithm, String metadata, String metadataSignature) {
+        return waitForApproval(signAsync(label, password, payload, algorithm, metadata, metadataSignature));
+    }
+
+    /**
+     * Sends the sign request to the TSB and returns without waiting for its approval. The TSB calls are made with
+     * the async client, so no thread is blocked until the approval is decided.
+     *
+     * @return future completed by the {@link ApprovalTracker} once the request is no longer pending
+     */
+    public CompletableFuture<RequestStatusResponseDto> signAsync(String label, String password, String payload, String algorithm, String metadata, String metadataSignature) {
 
         String tsbSigningAlgorithm;
         switch (algorithm) {
@@ -47,12 +70,7 @@ public class HsmFacade {
         }
 
 
-        String signatureId = tsbService.sign(label, password, payload, "HEX", "RAW", tsbSigningAlgorithm, metadata, metadataSignature);
-        RequestStatusResponseDto requestStatusResponseDto = tsbService.getRequest(signatureId);
-
-        requestStatusResponseDto = waitForApproval(requestStatusResponseDto, signatureId);
-
-        return requestStatusResponseDto;
+        return track(tsbService.signAsync(label, password, payload, "HEX", "RAW", tsbSigningAlgorithm, metadata, metadataSignature));
     }
 
     public boolean verify(byte[] payloadSignature, String serviceName, String payload) {
@@ -62,9 +80,9 @@ public class HsmFacade {
                 return false;
             }
 
-            PublicKey publicKey = getPublicKey();
+            PublicKey publicKey = verificationKeyCache.getPublicKey();
 
-            Signature sig = Signature.getInstance("SHA256withRSA");
+            Signature sig = VERIFY_SIGNATURE.get();
             sig.initVerify(publicKey);
             sig.update(payload.getBytes(StandardCharsets.UTF_8));
 
@@ -75,39 +93,18 @@ public class HsmFacade {
         }
     }
 
-    private PublicKey getPublicKey() {
-        PublicKey publicKey;
-        if (properties.getFireblocksSignatureCertificate() != null && !properties.getFireblocksSignatureCertificate().isBlank()){
-            X509Certificate fireblocksCertificate = cryptoUtil.loadCertificate(properties.getFireblocksSignatureCertificate());
-            publicKey = fireblocksCertificate.getPublicKey();
-        } else if (properties.getFireblocksSignaturePublicKey() != null && !properties.getFireblocksSignaturePublicKey().isBlank()){
-            publicKey = cryptoUtil.getPublicKeyFromBase64(properties.getFireblocksSignaturePublicKey());
-        } else {
-            throw new BusinessException("No Fireblocks verification key or certificate configured",
-                    BusinessReason.ERROR_INVALID_CONFIG_INPUT);
-        }
-        return publicKey;
-    }
-
-    private RequestStatusResponseDto waitForApproval(RequestStatusResponseDto requestStatusResponseDto, String decryptRequestId) {
-        long timeoutMillis = 120000;
-        long startTime = System.currentTimeMillis();
-        while ("PENDING".equals(requestStatusResponseDto.getStatus())) {
-
-            if (System.currentTimeMillis() - startTime > timeoutMillis) {
-                return requestStatusResponseDto;
-            }
-
-            try {
-                TimeUnit.SECONDS.sleep(5);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt(); // Restore the interrupted status
-                throw new BusinessException("Interrupted while waiting for response", BusinessReason.ERROR_IN_SUBSYSTEM);
+    private RequestStatusResponseDto waitForApproval(CompletableFuture<RequestStatusResponseDto> approval) {
+        try {
+            return approval.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore the interrupted status
+            throw new BusinessException("Interrupted while waiting for response", BusinessReason.ERROR_IN_SUBSYSTEM);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
-            requestStatusResponseDto = tsbService.getRequest(decryptRequestId);
+            throw new BusinessException("Error while waiting for response", BusinessReason.ERROR_IN_SUBSYSTEM, e.getCause());
         }
-
-        return requestStatusResponseDto;
     }
 
 
@@ -116,7 +113,7 @@ public class HsmFacade {
         if (tsbProperties.isAirGapped()){
             return false;
         }
-        LicenseResponseDto license = tsbService.getLicense();
+        LicenseResponseDto license = licenseCache.get();
         return license.getClientFlags() == null
                 || !license.getClientFlags().contains("FIREBLOCKS_AGENT");
 
@@ -125,12 +122,8 @@ public class HsmFacade {
     public String generateCertificateRequest(String assetKeyName, String password, String signatureAlgorithm, boolean skaKey) {
 
         if (skaKey){
-            String signatureId = tsbService.generateCertificateRequest(assetKeyName, password, signatureAlgorithm);
-            RequestStatusResponseDto requestStatusResponseDto = tsbService.getRequest(signatureId);
-
-            requestStatusResponseDto = waitForApproval(requestStatusResponseDto, signatureId);
-
-            return requestStatusResponseDto.getResult();
+            return waitForApproval(track(tsbService.generateCertificateRequestAsync(assetKeyName, password, signatureAlgorithm)))
+                    .getResult();
         } else {
             return tsbService.generateSynchronousCertificateRequest(assetKeyName, password, signatureAlgorithm);
         }
@@ -138,12 +131,15 @@ public class HsmFacade {
 
     public String signMessageForOwnership(String label, String password, String payload, String algorithm, String metadata, String metadataSignature) {
 
-        String signatureId = tsbService.sign(label, password, payload, "UNSPECIFIED", "RAW", algorithm, metadata, metadataSignature);
-        RequestStatusResponseDto requestStatusResponseDto = tsbService.getRequest(signatureId);
-
-        requestStatusResponseDto = waitForApproval(requestStatusResponseDto, signatureId);
+        return waitForApproval(track(tsbService.signAsync(label, password, payload, "UNSPECIFIED", "RAW", algorithm, metadata, metadataSignature)))
+                .getResult();
+    }
 
-        return requestStatusResponseDto.getResult();
+    /**
+     * Hands the TSB request to the {@link ApprovalTracker} once it was accepted, whose polls fetch its first status.
+     */
+    private CompletableFuture<RequestStatusResponseDto> track(CompletableFuture<String> tsbRequest) {
+        return tsbRequest.thenCompose(approvalTracker::track);
     }
 
 }
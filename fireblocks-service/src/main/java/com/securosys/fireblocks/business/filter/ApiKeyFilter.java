@@ -44,6 +44,14 @@ public class ApiKeyFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Long-poll requests of /messagesStatus are completed in an async dispatch, which needs the authentication too.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -5,7 +5,10 @@ package com.securosys.fireblocks.business.repository;
 
 import com.securosys.fireblocks.datamodel.entities.MessageEnvelopeEntity;
 import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
@@ -17,4 +20,13 @@ public interface MessageEnvelopeRepository extends CrudRepository<MessageEnvelop
     Optional<MessageEnvelopeEntity> findByRequestId(UUID requestId);
 
     List<MessageEnvelopeEntity> findByRequestIdIn(List<UUID> requestIds);
-}
\ No newline at end of file
+
+    /**
+     * Deletes the envelopes of the given requests that have no status anymore. Messages and payload signatures
+     * are removed by ON DELETE CASCADE.
+     */
+    @Modifying
+    @Query("delete from MessageEnvelopeEntity e where e.requestId in :requestIds " +
+            "and not exists (select s.id from MessageStatusEntity s where s.requestId = e.requestId)")
+    int deleteWithoutStatus(@Param("requestIds") List<UUID> requestIds);
+}
@@ -0,0 +1,40 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.repository;
+
+import com.securosys.fireblocks.datamodel.entities.MessageResponseEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Responses stored in the relational layout (message_response and signed_message).
+ */
+@Repository
+@Transactional
+public interface MessageResponseRepository extends CrudRepository<MessageResponseEntity, UUID> {
+
+    Optional<MessageResponseEntity> findByStatusId(UUID statusId);
+
+    /**
+     * The responses of several statuses together with their signed messages, in one query.
+     */
+    @Query("select distinct r from MessageResponseEntity r left join fetch r.signedMessages where r.status.id in :statusIds")
+    List<MessageResponseEntity> findByStatusIdIn(@Param("statusIds") Collection<UUID> statusIds);
+
+    /**
+     * Deletes the response of a status, its signed messages are removed by ON DELETE CASCADE.
+     */
+    @Modifying
+    @Query("delete from MessageResponseEntity r where r.status.id = :statusId")
+    int deleteByStatusId(@Param("statusId") UUID statusId);
+}
@@ -5,7 +5,11 @@ package com.securosys.fireblocks.business.repository;
 
 import com.securosys.fireblocks.datamodel.entities.MessageStatusEntity;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
@@ -19,4 +23,35 @@ public interface MessageStatusRepository extends CrudRepository<MessageStatusEnt
     List<MessageStatusEntity> findByStatus(String status);
 
     Optional<MessageStatusEntity> findByRequestId(UUID requestId);
+
+    /**
+     * Requests with the given status whose next poll is due, oldest first (uses the index on status, next_poll_at).
+     */
+    @Query("select s from MessageStatusEntity s where s.status = :status and s.nextPollAt <= :now order by s.nextPollAt")
+    List<MessageStatusEntity> findDueForPoll(@Param("status") String status, @Param("now") Date now, Pageable pageable);
+
+    /**
+     * Next chunk of requests with the given status last changed before the cutoff, oldest first, starting at
+     * {@code from} (keyset pagination on the index on status, ctl_mod_ts).
+     */
+    @Query("select s.requestId as requestId, s.ctlModTs as ctlModTs from MessageStatusEntity s " +
+            "where s.status = :status and s.ctlModTs >= :from and s.ctlModTs < :cutoff order by s.ctlModTs")
+    List<PurgeCandidate> findPurgeCandidates(@Param("status") String status, @Param("from") Date from,
+                                             @Param("cutoff") Date cutoff, Pageable pageable);
+
+    /**
+     * Deletes the given requests unless they were changed after the cutoff in the meantime. Their responses and
+     * signed messages are removed by ON DELETE CASCADE.
+     */
+    @Modifying
+    @Query("delete from MessageStatusEntity s " +
+            "where s.requestId in :requestIds and s.status = :status and s.ctlModTs < :cutoff")
+    int deleteFinished(@Param("requestIds") List<UUID> requestIds, @Param("status") String status,
+                       @Param("cutoff") Date cutoff);
+
+    interface PurgeCandidate {
+        UUID getRequestId();
+
+        Date getCtlModTs();
+    }
 }
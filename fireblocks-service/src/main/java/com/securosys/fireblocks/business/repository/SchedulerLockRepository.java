@@ -0,0 +1,41 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.repository;
+
+import com.securosys.fireblocks.datamodel.entities.SchedulerLockEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+@Repository
+@Transactional
+public interface SchedulerLockRepository extends CrudRepository<SchedulerLockEntity, String> {
+
+    /**
+     * Takes over the lock if it is expired, or extends it if it is already held by the given node.
+     * @return 1 if the lock is held by the given node afterwards, 0 otherwise
+     */
+    @Modifying
+    @Query("update SchedulerLockEntity l set l.lockedBy = :nodeId, l.lockedUntil = :lockedUntil " +
+            "where l.name = :name and (l.lockedUntil <= :now or l.lockedBy = :nodeId)")
+    int tryAcquire(@Param("name") String name, @Param("nodeId") String nodeId,
+                   @Param("now") Date now, @Param("lockedUntil") Date lockedUntil);
+
+    /**
+     * Creates the lock of a job that never ran before. Fails with a constraint violation if another node was faster.
+     */
+    @Modifying
+    @Query(value = "insert into scheduler_lock (name, locked_by, locked_until) values (:name, :nodeId, :lockedUntil)",
+            nativeQuery = true)
+    int insert(@Param("name") String name, @Param("nodeId") String nodeId, @Param("lockedUntil") Date lockedUntil);
+
+    @Modifying
+    @Query("update SchedulerLockEntity l set l.lockedUntil = :now where l.name = :name and l.lockedBy = :nodeId")
+    int release(@Param("name") String name, @Param("nodeId") String nodeId, @Param("now") Date now);
+}
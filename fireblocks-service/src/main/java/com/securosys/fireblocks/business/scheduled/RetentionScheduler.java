@@ -0,0 +1,32 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.scheduled;
+
+import com.securosys.fireblocks.business.service.RetentionService;
+import com.securosys.fireblocks.business.service.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "custom-server.retention", name = "enabled", havingValue = "true")
+public class RetentionScheduler {
+
+    private final RetentionService retentionService;
+    private final SchedulerLockService schedulerLockService;
+
+    @Scheduled(fixedDelayString = "#{${custom-server.retention.intervalSeconds:3600} * 1000}", initialDelay = 60000)
+    public void purgeExpiredRequests() {
+        if (!schedulerLockService.tryAcquire(SchedulerLockService.RETENTION_LOCK)) {
+            log.debug("Retention is run by another node");
+            return;
+        }
+        log.info("Scheduler triggered: Delete requests past their retention...");
+        retentionService.purgeExpired();
+    }
+}
@@ -0,0 +1,24 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.scheduled;
+
+import com.securosys.fireblocks.business.service.TsbService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Probes the TSB endpoints on every node, as the health of the endpoints is local routing state.
+ */
+@Component
+@RequiredArgsConstructor
+public class TsbEndpointProbeScheduler {
+
+    private final TsbService tsbService;
+
+    @Scheduled(fixedDelayString = "#{${tsb.endpoints.probeIntervalSeconds:10} * 1000}", initialDelay = 10000)
+    public void probeEndpoints() {
+        tsbService.probeEndpoints();
+    }
+}
@@ -0,0 +1,179 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import com.securosys.fireblocks.business.dto.response.RequestStatusResponseDto;
+import com.securosys.fireblocks.business.exceptions.BusinessException;
+import com.securosys.fireblocks.business.exceptions.BusinessReason;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of all TSB requests that are waiting for approval. Each request is polled on its own schedule, and
+ * the caller gets a {@link CompletableFuture} that completes as soon as the request leaves the PENDING state, or
+ * with the last known status once the timeout is reached.
+ * <p>
+ * The polls are sent with the async TSB client, so the few poller threads only start them and thousands of
+ * requests can be tracked. At most {@code maxConcurrentPolls} polls are in flight; a request that finds no free
+ * slot is polled again one interval later. The next poll of a request is scheduled when its previous one completed.
+ * A failed poll leaves the request pending, it is polled again until the timeout. This applies to the first status
+ * of a request just accepted by the TSB as well.
+ */
+@Slf4j
+@Component
+public class ApprovalTracker {
+
+    private static final String PENDING = "PENDING";
+
+    private final TsbService tsbService;
+    private final TsbProperties.Approval settings;
+    private final ScheduledExecutorService poller;
+    private final Semaphore pollsInFlight;
+    private final Map<String, PendingApproval> pendingApprovals = new ConcurrentHashMap<>();
+
+    public ApprovalTracker(TsbService tsbService, TsbProperties tsbProperties) {
+        this.tsbService = tsbService;
+        this.settings = tsbProperties.getApproval();
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("approval-tracker-");
+        threadFactory.setDaemon(true);
+        this.poller = Executors.newScheduledThreadPool(settings.getPollerThreads(), threadFactory);
+        this.pollsInFlight = new Semaphore(settings.getMaxConcurrentPolls());
+    }
+
+    /**
+     * Starts tracking a TSB request whose status is not known yet, e.g. right after it was accepted. Its first
+     * status is fetched by the first poll, which is sent right away if a slot is free. A request that is still
+     * pending at the timeout completes with a PENDING status carrying only its id.
+     *
+     * @param requestId the id of the TSB request
+     * @return future completed with the final (or, on timeout, the last pending) status
+     */
+    public CompletableFuture<RequestStatusResponseDto> track(String requestId) {
+        RequestStatusResponseDto unknown = new RequestStatusResponseDto();
+        unknown.setId(requestId);
+        unknown.setStatus(PENDING);
+        return register(requestId, unknown, 0);
+    }
+
+    /**
+     * Starts tracking a TSB request. If the given status is not pending anymore, the returned future is already
+     * completed. A request that is tracked already shares the future of the first caller.
+     *
+     * @param requestId the id of the TSB request
+     * @param currentStatus the status as returned by the TSB right after creating the request
+     * @return future completed with the final (or, on timeout, the last pending) status
+     */
+    public CompletableFuture<RequestStatusResponseDto> track(String requestId, RequestStatusResponseDto currentStatus) {
+        if (!PENDING.equals(currentStatus.getStatus())) {
+            return CompletableFuture.completedFuture(currentStatus);
+        }
+        return register(requestId, currentStatus, settings.getPollIntervalMillis());
+    }
+
+    private CompletableFuture<RequestStatusResponseDto> register(String requestId, RequestStatusResponseDto status,
+                                                                 long firstPollDelayMillis) {
+        PendingApproval approval = new PendingApproval(requestId, status,
+                System.currentTimeMillis() + settings.getTimeoutMillis());
+        PendingApproval tracked = pendingApprovals.putIfAbsent(requestId, approval);
+        if (tracked != null) {
+            return tracked.future;
+        }
+        // scheduled outside of the map update, as a rejected schedule removes the approval again
+        schedule(approval, firstPollDelayMillis);
+        return approval.future;
+    }
+
+    public int getPendingCount() {
+        return pendingApprovals.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        pendingApprovals.values().forEach(approval -> complete(approval, null,
+                new BusinessException("Service is shutting down", BusinessReason.ERROR_IN_SUBSYSTEM)));
+    }
+
+    private void schedule(PendingApproval approval, long delayMillis) {
+        try {
+            poller.schedule(() -> poll(approval), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            complete(approval, null,
+                    new BusinessException("Approval tracker is not running", BusinessReason.ERROR_IN_SUBSYSTEM, e));
+        }
+    }
+
+    private void poll(PendingApproval approval) {
+        if (approval.future.isDone()) {
+            return;
+        }
+        if (!pollsInFlight.tryAcquire()) {
+            reschedule(approval);
+            return;
+        }
+
+        CompletableFuture<RequestStatusResponseDto> status;
+        try {
+            status = tsbService.getRequestAsync(approval.requestId);
+        } catch (RuntimeException e) {
+            status = CompletableFuture.failedFuture(e);
+        }
+        status.whenComplete((result, error) -> {
+            pollsInFlight.release();
+            if (error != null) {
+                log.warn("Polling status of request {} failed, keeping it pending: {}", approval.requestId,
+                        error.getCause() != null ? error.getCause().getMessage() : error.getMessage());
+            } else {
+                approval.lastStatus = result;
+            }
+            reschedule(approval);
+        });
+    }
+
+    private void reschedule(PendingApproval approval) {
+        if (!PENDING.equals(approval.lastStatus.getStatus())) {
+            complete(approval, approval.lastStatus, null);
+        } else if (System.currentTimeMillis() >= approval.deadline) {
+            log.info("Request {} is still pending after {} ms", approval.requestId, settings.getTimeoutMillis());
+            complete(approval, approval.lastStatus, null);
+        } else {
+            schedule(approval, settings.getPollIntervalMillis());
+        }
+    }
+
+    private void complete(PendingApproval approval, RequestStatusResponseDto status, Throwable error) {
+        pendingApprovals.remove(approval.requestId, approval);
+        if (error != null) {
+            approval.future.completeExceptionally(error);
+        } else {
+            approval.future.complete(status);
+        }
+    }
+
+    private static class PendingApproval {
+        private final String requestId;
+        private final long deadline;
+        private final CompletableFuture<RequestStatusResponseDto> future = new CompletableFuture<>();
+        private volatile RequestStatusResponseDto lastStatus;
+
+        PendingApproval(String requestId, RequestStatusResponseDto lastStatus, long deadline) {
+            this.requestId = requestId;
+            this.lastStatus = lastStatus;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -23,6 +23,14 @@ import java.util.jar.Manifest;
 @RequiredArgsConstructor
 public class InfoService {
 
+    private final TsbHttpClientFactory tsbHttpClientFactory;
+    private final ApprovalTracker approvalTracker;
+    private final StatusChangeRegistry statusChangeRegistry;
+    private final TerminalStatusCache terminalStatusCache;
+    private final TsbCircuitBreaker tsbCircuitBreaker;
+    private final TsbRetryPolicy tsbRetryPolicy;
+    private final TsbEndpointPool tsbEndpointPool;
+
     private static final String VENDOR = "Securosys SA";
 
     private static final String TITLE = "Fireblocks Securosys Custom Server";
@@ -98,4 +106,21 @@ public class InfoService {
         }
         return logs;
     }
+
+    /**
+     * Collects runtime statistics of the internal resources, e.g. the usage of the TSB connection pool.
+     *
+     * @return a map of statistics grouped by resource
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("tsbConnectionPool", tsbHttpClientFactory.getPoolStatistics());
+        statistics.put("pendingApprovals", approvalTracker.getPendingCount());
+        statistics.put("longPollWatchedRequests", statusChangeRegistry.getWatchedRequestCount());
+        statistics.put("terminalStatusCache", terminalStatusCache.getStatistics());
+        statistics.put("tsbCircuitBreakers", tsbCircuitBreaker.getStatistics());
+        statistics.put("tsbRetries", tsbRetryPolicy.getStatistics());
+        statistics.put("tsbEndpoints", tsbEndpointPool.getStatistics());
+        return statistics;
+    }
 }
@@ -0,0 +1,109 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import com.securosys.fireblocks.business.dto.response.LicenseResponseDto;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches the license information of the TSB. Within the TTL the cached value is returned as is. After the TTL
+ * the cached value is still returned while a background refresh is running; if the TSB cannot be reached, the
+ * last known license is served until it is older than TTL plus the configured max staleness. Only then callers
+ * wait for the TSB again (and get its error).
+ */
+@Slf4j
+@Component
+public class LicenseCache {
+
+    private final TsbService tsbService;
+    private final TsbProperties.LicenseCache settings;
+    private final ExecutorService refreshExecutor;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile CachedLicense cached;
+
+    public LicenseCache(TsbService tsbService, TsbProperties tsbProperties) {
+        this.tsbService = tsbService;
+        this.settings = tsbProperties.getLicenseCache();
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("license-refresh-");
+        threadFactory.setDaemon(true);
+        this.refreshExecutor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    public LicenseResponseDto get() {
+        if (settings.getTtlSeconds() == 0) {
+            return tsbService.getLicense();
+        }
+
+        CachedLicense current = cached;
+        if (current != null) {
+            long age = System.currentTimeMillis() - current.loadedAt;
+            if (age < TimeUnit.SECONDS.toMillis(settings.getTtlSeconds())) {
+                return current.license;
+            }
+            if (age < TimeUnit.SECONDS.toMillis(settings.getTtlSeconds() + settings.getMaxStaleSeconds())) {
+                refreshInBackground();
+                return current.license;
+            }
+        }
+        return load(current);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private synchronized LicenseResponseDto load(CachedLicense outdated) {
+        CachedLicense current = cached;
+        if (current != outdated && current != null) {
+            // another caller loaded the license in the meantime
+            return current.license;
+        }
+        LicenseResponseDto license = tsbService.getLicense();
+        cached = new CachedLicense(license, System.currentTimeMillis());
+        return license;
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    LicenseResponseDto license = tsbService.getLicense();
+                    cached = new CachedLicense(license, System.currentTimeMillis());
+                } catch (Exception e) {
+                    log.warn("Refreshing TSB license failed, serving the cached license: {}", e.getMessage());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private static class CachedLicense {
+        private final LicenseResponseDto license;
+        private final long loadedAt;
+
+        CachedLicense(LicenseResponseDto license, long loadedAt) {
+            this.license = license;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
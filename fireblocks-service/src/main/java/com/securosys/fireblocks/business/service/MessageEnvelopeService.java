@@ -22,8 +22,28 @@ import java.util.UUID;
 public class MessageEnvelopeService {
 
     private final MessageEnvelopeRepository jpaRepository;
+    private final MessageStatusService statusService;
 
     public void save(MessageEnvelope envelope) {
+        jpaRepository.save(toEntity(envelope));
+    }
+
+    /**
+     * Stores the envelopes of one request together with their initial status in a single transaction.
+     * <p>
+     * Nothing is sent to the database before the commit: the UUIDs of all rows are generated by Hibernate when
+     * they are persisted (no sequence or identity round trip; pre-assigning them would make
+     * {@code CrudRepository.save} merge and select every row first), and all inserts are flushed at the commit,
+     * ordered by table and sent as JDBC batches (see {@code hibernate.jdbc.batch_size} in DataSourceConfiguration).
+     */
+    public void saveWithInitialStatus(List<MessageEnvelope> envelopes, List<MessageStatus> initialStatuses) {
+        jpaRepository.saveAll(envelopes.stream().map(this::toEntity).toList());
+        for (MessageStatus status : initialStatuses) {
+            statusService.saveNew(status, "");
+        }
+    }
+
+    private MessageEnvelopeEntity toEntity(MessageEnvelope envelope) {
 
         PayloadSignatureDataEntity sigEntity = PayloadSignatureDataEntity.builder()
                 .signature(envelope.getMessage().getPayloadSignatureData().getSignature())
@@ -44,7 +64,7 @@ public class MessageEnvelopeService {
                 .build();
 
         messageEntity.setEnvelope(entity);
-        jpaRepository.save(entity);
+        return entity;
     }
 
     public Optional<MessageEnvelope> findByRequestId(UUID requestId) {
@@ -8,60 +8,204 @@ import com.securosys.fireblocks.business.dto.customServer.MessageStatus;
 import com.securosys.fireblocks.business.dto.customServer.SignedMessage;
 import com.securosys.fireblocks.business.exceptions.BusinessException;
 import com.securosys.fireblocks.business.exceptions.BusinessReason;
+import com.securosys.fireblocks.business.repository.MessageEnvelopeRepository;
+import com.securosys.fireblocks.business.repository.MessageResponseRepository;
 import com.securosys.fireblocks.business.repository.MessageStatusRepository;
+import com.securosys.fireblocks.configuration.CustomServerProperties;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import com.securosys.fireblocks.datamodel.entities.MessageResponseDocument;
 import com.securosys.fireblocks.datamodel.entities.MessageResponseEntity;
 import com.securosys.fireblocks.datamodel.entities.MessageStatusEntity;
 import com.securosys.fireblocks.datamodel.entities.SignedMessageEntity;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class MessageStatusService {
 
     private final MessageStatusRepository jpaRepository;
+    private final MessageResponseRepository responseRepository;
+    private final MessageEnvelopeRepository envelopeRepository;
+    private final TsbProperties tsbProperties;
+    private final CustomServerProperties customServerProperties;
+    private final StatusChangeRegistry statusChangeRegistry;
+    private final TerminalStatusCache terminalStatusCache;
+    private final PlatformTransactionManager transactionManager;
 
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    /**
+     * Stores the status of a request. An existing status of the same request ID is updated in place,
+     * e.g. when a pending message is signed later by a background worker or /signRequest.
+     * The response is written in the configured {@code custom-server.statusStorageLayout}; a response stored in
+     * the other layout before is removed.
+     * <p>
+     * {@code tsbRequestId} is the request-level TSB id, which only requests stored before the ids were kept per
+     * signed message have; new requests pass an empty string.
+     * <p>
+     * Runs in its own transaction, retried if the status sync changed the request concurrently (see
+     * {@link #retryOnConflict(Runnable)}).
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void save(MessageStatus status, String tsbRequestId) {
+        retryOnConflict(() -> {
+            MessageStatusEntity entity = jpaRepository.findByRequestId(status.getRequestId())
+                    .orElseGet(() -> MessageStatusEntity.builder()
+                            .requestId(status.getRequestId())
+                            .build());
+            write(entity, status, tsbRequestId);
+        });
+    }
 
-        MessageResponseEntity responseEntity = MessageResponseEntity.builder()
-                .build();
+    /**
+     * Stores the first status of a new request without looking up an existing one. Used together with the
+     * envelope in one transaction, so that the inserts are flushed as JDBC batches at commit.
+     */
+    public void saveNew(MessageStatus status, String tsbRequestId) {
+        write(MessageStatusEntity.builder()
+                .requestId(status.getRequestId())
+                .build(), status, tsbRequestId);
+    }
 
-        if (status.getResponse().getSignedMessages() != null) {
-            List<SignedMessageEntity> signedEntities = status.getResponse().getSignedMessages().stream()
-                    .map(sm -> SignedMessageEntity.builder()
-                            .message(sm.getMessage())
-                            .index(sm.getIndex())
-                            .signature(sm.getSignature())
-                            .response(responseEntity)
-                            .build())
-                    .toList();
+    private void write(MessageStatusEntity entity, MessageStatus status, String tsbRequestId) {
+        boolean isNew = entity.getId() == null;
 
-            responseEntity.setSignedMessages(signedEntities);
+        boolean statusChanged = !status.getStatus().equals(entity.getStatus());
+        if (TerminalStatusCache.isTerminal(entity.getStatus())) {
+            // a final status is overwritten, e.g. by /signRequest
+            invalidateAfterCommit(status.getRequestId());
         }
+        entity.setTsbRequestId(tsbRequestId);
+        entity.setType(status.getType());
+        entity.setStatus(status.getStatus());
+        entity.setPollAttempts(0);
+        entity.setNextPollAt(MessageStatus.PENDING_SIGN.equals(status.getStatus()) ? nextPollAt(0) : null);
 
-        MessageStatusEntity entity = MessageStatusEntity.builder()
-                .requestId(status.getRequestId())
-                .tsbRequestId(tsbRequestId)
-                .type(status.getType())
-                .status(status.getStatus())
-                .response(responseEntity)
-                .build();
+        List<SignedMessage> signedMessages = status.getResponse() != null && status.getResponse().getSignedMessages() != null
+                ? status.getResponse().getSignedMessages()
+                : List.of();
+
+        if (customServerProperties.getStatusStorageLayout() == CustomServerProperties.StatusStorageLayout.DOCUMENT) {
+            if (!isNew && entity.getResponseDocument() == null) {
+                // stored in the relational layout before
+                responseRepository.deleteByStatusId(entity.getId());
+            }
+            entity.setResponseDocument(new MessageResponseDocument(signedMessages.stream()
+                    .map(sm -> new MessageResponseDocument.Message(
+                            sm.getMessage(), sm.getIndex(), sm.getSignature(), sm.getTsbRequestId()))
+                    .collect(Collectors.toCollection(ArrayList::new))));
+            jpaRepository.save(entity);
+        } else {
+            entity.setResponseDocument(null);
+            MessageStatusEntity saved = jpaRepository.save(entity);
+            saveRelationalResponse(saved, isNew, signedMessages);
+        }
+
+        if (statusChanged) {
+            notifyAfterCommit(status.getRequestId());
+        }
+    }
 
-        responseEntity.setStatus(entity);
+    /**
+     * Stores the result of a status sync with the TSB in its own short transaction. Only the status and the
+     * signatures of the given messages are changed; requests that were finished meanwhile are left untouched.
+     * The response is updated in the layout it is stored in.
+     * @param signatures new signatures by index of the signed message
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void updateSyncedStatus(UUID requestId, String status, Map<Integer, String> signatures) {
+        retryOnConflict(() -> jpaRepository.findByRequestId(requestId).ifPresent(entity -> {
+            if (!MessageStatus.PENDING_SIGN.equals(entity.getStatus())) {
+                return;
+            }
+            boolean statusChanged = !status.equals(entity.getStatus());
+            entity.setStatus(status);
+            if (MessageStatus.PENDING_SIGN.equals(status)) {
+                entity.setPollAttempts(entity.getPollAttempts() + 1);
+                entity.setNextPollAt(nextPollAt(entity.getPollAttempts()));
+            } else {
+                entity.setNextPollAt(null);
+            }
 
-        jpaRepository.save(entity);
+            if (entity.getResponseDocument() != null) {
+                entity.setResponseDocument(new MessageResponseDocument(entity.getResponseDocument().getSignedMessages().stream()
+                        .map(sm -> new MessageResponseDocument.Message(sm.getMessage(), sm.getIndex(),
+                                signatures.getOrDefault(sm.getIndex(), sm.getSignature()), sm.getTsbRequestId()))
+                        .collect(Collectors.toCollection(ArrayList::new))));
+            } else if (!signatures.isEmpty()) {
+                responseRepository.findByStatusId(entity.getId()).ifPresent(response -> {
+                    for (SignedMessageEntity signedMessage : response.getSignedMessages()) {
+                        String signature = signatures.get(signedMessage.getIndex());
+                        if (signature != null) {
+                            signedMessage.setSignature(signature);
+                        }
+                    }
+                });
+            }
+            jpaRepository.save(entity);
+            if (statusChanged) {
+                notifyAfterCommit(requestId);
+            }
+        }));
+    }
+
+    /**
+     * Moves the next poll of a pending request back without changing it, e.g. if the TSB could not be reached.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deferNextPoll(UUID requestId) {
+        retryOnConflict(() -> jpaRepository.findByRequestId(requestId)
+                .filter(entity -> MessageStatus.PENDING_SIGN.equals(entity.getStatus()))
+                .ifPresent(entity -> {
+                    entity.setPollAttempts(entity.getPollAttempts() + 1);
+                    entity.setNextPollAt(nextPollAt(entity.getPollAttempts()));
+                    jpaRepository.save(entity);
+                }));
+    }
+
+    /**
+     * Deletes requests of the retention policy (status and envelope with all their rows) in one transaction.
+     * Requests that changed after the cutoff meanwhile are kept.
+     * @return number of deleted requests
+     */
+    public int deleteFinished(List<UUID> requestIds, String status, Date cutoff) {
+        int deleted = jpaRepository.deleteFinished(requestIds, status, cutoff);
+        envelopeRepository.deleteWithoutStatus(requestIds);
+        requestIds.forEach(this::invalidateAfterCommit);
+        return deleted;
+    }
+
+    /**
+     * Pending requests that are due to be polled, see {@link #nextPollAt(int)}.
+     */
+    public List<MessageStatusEntity> findDueForPoll(int limit) {
+        return jpaRepository.findDueForPoll(MessageStatus.PENDING_SIGN, new Date(), PageRequest.of(0, limit));
     }
 
     public List<MessageStatus> findByStatus(String status) {
-        return jpaRepository.findByStatus(status).stream()
-                .map(this::toDomain)
-                .toList();
+        return toDomainList(jpaRepository.findByStatus(status));
     }
 
     public Optional<MessageStatus> findByRequestId(UUID requestId) {
@@ -69,25 +213,137 @@ public class MessageStatusService {
                 .map(this::toDomain);
     }
 
-    private MessageStatus toDomain(MessageStatusEntity entity) {
+    /**
+     * Exponential backoff: the first poll after {@code firstPollDelaySeconds}, then doubling up to
+     * {@code maxPollDelaySeconds}.
+     */
+    private Date nextPollAt(int attempts) {
+        TsbProperties.StatusSync settings = tsbProperties.getStatusSync();
+        long delaySeconds = Math.min(settings.getMaxPollDelaySeconds(),
+                settings.getFirstPollDelaySeconds() << Math.min(attempts, 20));
+        return new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(delaySeconds));
+    }
+
+    /**
+     * Runs a read-modify-write of a status in a new transaction. Concurrent writers (signing workers, the status
+     * sync, /signRequest) are detected by the version column of message_status instead of row locks held across
+     * the read; the losing writer reads the status again and re-applies its change, which also re-checks its
+     * preconditions (e.g. that a synced request is still pending).
+     */
+    private void retryOnConflict(Runnable readModifyWrite) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transaction.executeWithoutResult(status -> readModifyWrite.run());
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Concurrent update of a message status, retrying ({}/{})", attempt, MAX_WRITE_ATTEMPTS);
+            }
+        }
+    }
+
+    private void invalidateAfterCommit(UUID requestId) {
+        terminalStatusCache.invalidate(requestId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    terminalStatusCache.invalidate(requestId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Informs waiting long-poll requests once the change is visible to other transactions.
+     */
+    private void notifyAfterCommit(UUID requestId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            statusChangeRegistry.notifyChanged(requestId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                statusChangeRegistry.notifyChanged(requestId);
+            }
+        });
+    }
+
+    /**
+     * Reads the response from the document column, or from message_response/signed_message for statuses stored
+     * in the relational layout.
+     */
+    public MessageStatus toDomain(MessageStatusEntity entity) {
+        return toDomainList(List.of(entity)).get(0);
+    }
+
+    /**
+     * Like {@link #toDomain(MessageStatusEntity)}, but loads the responses of all statuses in the relational
+     * layout with a single query instead of one per status.
+     */
+    public List<MessageStatus> toDomainList(List<MessageStatusEntity> entities) {
+        List<UUID> relationalIds = entities.stream()
+                .filter(entity -> entity.getResponseDocument() == null)
+                .map(MessageStatusEntity::getId)
+                .toList();
+        Map<UUID, MessageResponse> relationalResponses = new HashMap<>();
+        if (!relationalIds.isEmpty()) {
+            for (MessageResponseEntity response : responseRepository.findByStatusIdIn(relationalIds)) {
+                relationalResponses.put(response.getStatus().getId(), toDomain(response));
+            }
+        }
+
         try {
-            return MessageStatus.builder()
-                    .requestId(entity.getRequestId())
-                    .type(entity.getType())
-                    .status(entity.getStatus())
-                    .response(toDomain(entity.getResponse()))
-                    .build();
+            return entities.stream()
+                    .map(entity -> MessageStatus.builder()
+                            .requestId(entity.getRequestId())
+                            .type(entity.getType())
+                            .status(entity.getStatus())
+                            .response(entity.getResponseDocument() != null
+                                    ? toDomain(entity.getResponseDocument())
+                                    : relationalResponses.get(entity.getId()))
+                            .build())
+                    .toList();
         } catch (Exception e) {
             throw new BusinessException("Deserialization error: " + e, BusinessReason.ERROR_IN_SUBSYSTEM);
         }
     }
 
+    private void saveRelationalResponse(MessageStatusEntity entity, boolean isNew, List<SignedMessage> signedMessages) {
+        MessageResponseEntity responseEntity = (isNew ? Optional.<MessageResponseEntity>empty()
+                : responseRepository.findByStatusId(entity.getId()))
+                .orElseGet(() -> MessageResponseEntity.builder()
+                        .status(entity)
+                        .build());
+
+        responseEntity.getSignedMessages().clear();
+        responseEntity.getSignedMessages().addAll(signedMessages.stream()
+                .map(sm -> SignedMessageEntity.builder()
+                        .message(sm.getMessage())
+                        .index(sm.getIndex())
+                        .signature(sm.getSignature())
+                        .tsbRequestId(sm.getTsbRequestId())
+                        .response(responseEntity)
+                        .build())
+                .toList());
+        responseRepository.save(responseEntity);
+    }
+
+    private MessageResponse toDomain(MessageResponseDocument document) {
+        List<SignedMessage> signedDtos = document.getSignedMessages().stream()
+                .map(sm -> new SignedMessage(sm.getMessage(), sm.getIndex(), sm.getSignature(), sm.getTsbRequestId()))
+                .toList();
+
+        return new MessageResponse(signedDtos);
+    }
+
     private MessageResponse toDomain(MessageResponseEntity entity) {
-        if (entity == null) {
-            return null;
-        }
         List<SignedMessage> signedDtos = entity.getSignedMessages().stream()
-                .map(sm -> new SignedMessage(sm.getMessage(), sm.getIndex(), sm.getSignature()))
+                .map(sm -> new SignedMessage(sm.getMessage(), sm.getIndex(), sm.getSignature(), sm.getTsbRequestId()))
                 .toList();
 
         return new MessageResponse(signedDtos);
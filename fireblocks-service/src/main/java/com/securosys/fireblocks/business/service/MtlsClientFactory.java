@@ -11,13 +11,7 @@ import com.securosys.fireblocks.business.util.CryptoUtil;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
-import org.apache.hc.client5.http.io.HttpClientConnectionManager;
-import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.springframework.stereotype.Component;
 
 import javax.net.ssl.KeyManagerFactory;
@@ -40,50 +34,42 @@ public class MtlsClientFactory {
     private final ConfigUtil configUtil;
     private final TsbProperties tsbProperties;
 
-    private CloseableHttpClient httpClient;
+    private volatile SSLContext sslContext;
 
     @PostConstruct
     public void init() {
         if (isMtlsEnabled()) {
             try {
-                log.info("Initializing mTLS HTTP client");
-                this.httpClient = createHttpClient();
+                log.info("Initializing mTLS SSL context");
+                this.sslContext = loadSslContext();
             } catch (Exception e) {
-                log.error("Failed to initialize mTLS HTTP client", e);
-                throw new BusinessException("Could not create mTLS HttpClient", BusinessReason.ERROR_GENERAL);
+                log.error("Failed to initialize mTLS SSL context", e);
+                throw new BusinessException("Could not create mTLS SSL context", BusinessReason.ERROR_GENERAL);
             }
         } else {
-            log.info("mTLS not configured, skipping HttpClient initialization");
+            log.info("mTLS not configured, skipping SSL context initialization");
+            this.sslContext = null;
         }
     }
-    public CloseableHttpClient getClient() {
-        if (httpClient != null) {
-            return httpClient;
-        }
-        throw new BusinessException("mTLS HttpClient is not initialized", BusinessReason.ERROR_GENERAL);
-    }
 
+    /**
+     * Returns the SSL context carrying the mTLS client certificate, or {@code null} if mTLS is not configured.
+     * The pooled client in {@link TsbHttpClientFactory} is rebuilt whenever this instance changes.
+     */
+    public SSLContext getSslContext() {
+        return sslContext;
+    }
 
-    private CloseableHttpClient createHttpClient() {
+    private SSLContext loadSslContext() {
             try {
-                Security.addProvider(new BouncyCastleProvider());
-                log.info("Initializing HTTP client with mTLS support...");
+                CryptoUtil.installBouncyCastleProvider();
                 X509Certificate certificate = loadX509CertificateFromConfig();
                 PrivateKey privateKey = loadPrivateKey();
 
-                SSLContext sslContext = createSslContext(certificate, privateKey);
-
-                DefaultClientTlsStrategy tlsStrategy = new DefaultClientTlsStrategy(sslContext);
-
-                HttpClientConnectionManager connMgr = PoolingHttpClientConnectionManagerBuilder.create()
-                        .setTlsSocketStrategy(tlsStrategy)
-                        .build();
-
-                log.info("mTLS HttpClient initialized");
+                SSLContext context = createSslContext(certificate, privateKey);
 
-                return HttpClients.custom()
-                        .setConnectionManager(connMgr)
-                        .build();
+                log.info("mTLS SSL context initialized");
+                return context;
 
             } catch (Exception e) {
                 throw new BusinessException("Failed to initialize mTLS client: " + e, BusinessReason.ERROR_GENERAL);
@@ -132,7 +118,7 @@ public class MtlsClientFactory {
     }
 
     private SSLContext createSslContext(X509Certificate cert, PrivateKey key) throws Exception {
-        Security.addProvider(new BouncyCastleProvider());
+        CryptoUtil.installBouncyCastleProvider();
 
         KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
         trustStore.load(null, null);
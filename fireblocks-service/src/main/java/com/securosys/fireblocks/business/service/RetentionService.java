@@ -0,0 +1,63 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import com.securosys.fireblocks.business.repository.MessageStatusRepository;
+import com.securosys.fireblocks.configuration.CustomServerProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes requests whose status is one of {@code custom-server.retention.statuses} and did not change for
+ * {@code maxAgeDays}, together with their envelope, messages and signatures. Requests are deleted in chunks of
+ * {@code chunkSize}, each in its own short transaction, walking the index on status and last modification.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RetentionService {
+
+    private final MessageStatusRepository repository;
+    private final MessageStatusService messageStatusService;
+    private final SchedulerLockService schedulerLockService;
+    private final CustomServerProperties properties;
+
+    public void purgeExpired() {
+        CustomServerProperties.Retention settings = properties.getRetention();
+        Date cutoff = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(settings.getMaxAgeDays()));
+
+        int deleted = 0;
+        for (String status : settings.getStatuses()) {
+            Date from = new Date(0);
+            while (true) {
+                // extends the lease, a long purge must not be taken over by another node
+                if (!schedulerLockService.tryAcquire(SchedulerLockService.RETENTION_LOCK)) {
+                    log.info("Retention lease lost after deleting {} requests", deleted);
+                    return;
+                }
+                List<MessageStatusRepository.PurgeCandidate> chunk = repository.findPurgeCandidates(
+                        status, from, cutoff, PageRequest.of(0, settings.getChunkSize()));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                int chunkDeleted = messageStatusService.deleteFinished(
+                        chunk.stream().map(MessageStatusRepository.PurgeCandidate::getRequestId).toList(),
+                        status, cutoff);
+                deleted += chunkDeleted;
+                if (chunkDeleted == 0 || chunk.size() < settings.getChunkSize()) {
+                    break;
+                }
+                from = chunk.get(chunk.size() - 1).getCtlModTs();
+            }
+        }
+        log.info("Retention: deleted {} requests last changed before {}", deleted, cutoff);
+    }
+}
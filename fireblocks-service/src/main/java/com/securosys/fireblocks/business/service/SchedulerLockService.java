@@ -0,0 +1,150 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import com.securosys.fireblocks.business.repository.SchedulerLockRepository;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database backed leases for scheduled jobs. If several nodes share one database, only the node holding the
+ * lease of a job runs it. The holder extends its leases on every run and, on its own thread, every third of
+ * {@code tsb.cluster.leaseSeconds}, so a run longer than the lease keeps it. If the holder stops, another node
+ * takes over once the lease has expired, i.e. after {@code leaseSeconds} at most. Without
+ * {@code tsb.cluster.enabled} every lock is granted immediately.
+ */
+@Slf4j
+@Service
+public class SchedulerLockService {
+
+    public static final String STATUS_SYNC_LOCK = "status-sync";
+    public static final String RETENTION_LOCK = "retention";
+
+    private final SchedulerLockRepository repository;
+    private final TsbProperties.Cluster settings;
+    private final String nodeId;
+    private final Set<String> heldLocks = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService renewal;
+
+    public SchedulerLockService(SchedulerLockRepository repository, TsbProperties tsbProperties) {
+        this.repository = repository;
+        this.settings = tsbProperties.getCluster();
+        this.nodeId = settings.getNodeId() == null || settings.getNodeId().isBlank()
+                ? defaultNodeId()
+                : settings.getNodeId();
+    }
+
+    /**
+     * Starts renewing the held leases. Not on the task scheduler, whose thread may be busy with the job itself.
+     */
+    @PostConstruct
+    public void startRenewal() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        long intervalMillis = Math.max(1000, TimeUnit.SECONDS.toMillis(settings.getLeaseSeconds()) / 3);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("scheduler-lock-renewal-");
+        threadFactory.setDaemon(true);
+        renewal = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        renewal.scheduleWithFixedDelay(this::renewHeldLocks, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Acquires or extends the lease of the given job for {@code tsb.cluster.leaseSeconds}.
+     * @return true if this node may run the job
+     */
+    public boolean tryAcquire(String lockName) {
+        if (!settings.isEnabled()) {
+            return true;
+        }
+
+        Date now = new Date();
+        Date lockedUntil = leaseEnd(now);
+
+        boolean acquired = repository.tryAcquire(lockName, nodeId, now, lockedUntil) == 1
+                || (!repository.existsById(lockName) && insertLock(lockName, lockedUntil));
+        if (acquired) {
+            heldLocks.add(lockName);
+        } else {
+            heldLocks.remove(lockName);
+        }
+        return acquired;
+    }
+
+    /**
+     * Extends the leases this node holds. A lease taken over by another node in the meantime is dropped.
+     */
+    public void renewHeldLocks() {
+        for (String lockName : heldLocks) {
+            try {
+                Date now = new Date();
+                if (repository.tryAcquire(lockName, nodeId, now, leaseEnd(now)) != 1) {
+                    heldLocks.remove(lockName);
+                    log.info("Scheduler lock {} is held by another node now", lockName);
+                }
+            } catch (Exception e) {
+                log.warn("Could not renew scheduler lock {}: {}", lockName, e.getMessage());
+            }
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Gives up all leases on shutdown so that another node can take over without waiting for them to expire.
+     */
+    @PreDestroy
+    public void releaseAll() {
+        if (renewal != null) {
+            renewal.shutdownNow();
+        }
+        for (String lockName : heldLocks) {
+            try {
+                repository.release(lockName, nodeId, new Date());
+            } catch (Exception e) {
+                log.warn("Could not release scheduler lock {}: {}", lockName, e.getMessage());
+            }
+        }
+        heldLocks.clear();
+    }
+
+    private Date leaseEnd(Date now) {
+        return new Date(now.getTime() + TimeUnit.SECONDS.toMillis(settings.getLeaseSeconds()));
+    }
+
+    private boolean insertLock(String lockName, Date lockedUntil) {
+        try {
+            return repository.insert(lockName, nodeId, lockedUntil) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // another node created the lock at the same time
+            return false;
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
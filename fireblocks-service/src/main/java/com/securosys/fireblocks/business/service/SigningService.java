@@ -3,26 +3,28 @@
 
 package com.securosys.fireblocks.business.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.securosys.fireblocks.business.dto.customServer.*;
 import com.securosys.fireblocks.business.dto.response.RequestStatusResponseDto;
 import com.securosys.fireblocks.business.exceptions.BusinessException;
 import com.securosys.fireblocks.business.exceptions.BusinessReason;
 import com.securosys.fireblocks.business.facade.HsmFacade;
 import com.securosys.fireblocks.business.util.JsonUtil;
+import com.securosys.fireblocks.business.util.MessagePayloadParser;
 import com.securosys.fireblocks.configuration.CustomServerProperties;
+import com.securosys.fireblocks.configuration.SigningExecutorConfiguration;
 import com.securosys.fireblocks.datamodel.entities.RequestType;
 import com.securosys.fireblocks.datamodel.entities.ResponseType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 @Slf4j
@@ -34,7 +36,11 @@ public class SigningService {
     private final MessageStatusService statusService;
     private final MessageEnvelopeService envelopeService;
     private final JsonUtil jsonUtil;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MessagePayloadParser payloadParser;
+    @Qualifier(SigningExecutorConfiguration.SIGNING_WORKER_EXECUTOR)
+    private final TaskExecutor signingWorkerExecutor;
+    @Qualifier(SigningExecutorConfiguration.SIGNING_ENVELOPE_EXECUTOR)
+    private final TaskExecutor signingEnvelopeExecutor;
 
     /**
      * Method for /messagesToSign. Sign messages with Securosys TSB
@@ -49,122 +55,159 @@ public class SigningService {
         log.info("Got request from fireblocks: {}", originalBody);
         List<MessageStatus> statuses = new ArrayList<>();
 
-        JsonNode root;
-        try {
-            root = objectMapper.readTree(originalBody);
-        } catch (JsonProcessingException e) {
-            throw new BusinessException("Error reading json request.", BusinessReason.ERROR_INVALID_JSON);
-        }
-        ArrayNode messagesArray = (ArrayNode) root.get("messages");
         MessagesRequest request = jsonUtil.getObjectFromJsonString(originalBody, MessagesRequest.class);
 
-        for (int i = 0; i < request.getMessages().size(); i++) {
-            MessageEnvelope envelope = request.getMessages().get(i);
-            log.info("Message envelope: {}", envelope);
+        if (properties.getSigning().isAsynchronous()) {
+            return new MessagesStatusResponse(queueForSigning(request.getMessages()));
+        }
+
+        if (request.getMessages().size() == 1) {
+            statuses.add(signEnvelope(request.getMessages().get(0)));
+            return new MessagesStatusResponse(statuses);
+        }
+
+        // envelopes are independent, sign them concurrently but report them in the order of the request
+        List<CompletableFuture<MessageStatus>> results = new ArrayList<>();
+        for (MessageEnvelope envelope : request.getMessages()) {
+            results.add(CompletableFuture.supplyAsync(() -> signEnvelope(envelope), signingEnvelopeExecutor)
+                    .exceptionally(ex -> {
+                        UUID requestId = envelope.getTransportMetadata().getRequestId();
+                        log.error("Failed signing for request ID: {}, reason: {}", requestId, ex.getMessage());
+                        return buildFailedStatus(envelope, requestId);
+                    }));
+        }
+        for (CompletableFuture<MessageStatus> result : results) {
+            statuses.add(result.join());
+        }
+
+        return new MessagesStatusResponse(statuses);
+    }
+
+    /**
+     * Verifies, persists and signs a single envelope. Failures are reported as FAILED status of this envelope only.
+     */
+    private MessageStatus signEnvelope(MessageEnvelope envelope) {
+        log.info("Message envelope: {}", envelope);
+
+        UUID requestId = envelope.getTransportMetadata().getRequestId();
+        log.info("Saving message with ID: {}", requestId);
+        envelopeService.save(envelope);
+
+        return signAndSave(envelope, newStatus(envelope, requestId));
+    }
+
+    /**
+     * Verifies the payload signature of a stored envelope, signs all its messagesToSign entries and saves the
+     * resulting status. Shared by the synchronous path and the signing of pending requests; any failure is saved
+     * as FAILED status of this envelope only.
+     *
+     * @param status the status to update, new or as stored with the envelope
+     */
+    private MessageStatus signAndSave(MessageEnvelope envelope, MessageStatus status) {
+        UUID requestId = status.getRequestId();
+        try {
+            String rawPayload = envelope.getMessage().getPayload();
+            String service = envelope.getMessage().getPayloadSignatureData().getService();
+            String payloadSignature = envelope.getMessage().getPayloadSignatureData().getSignature();
+            byte[] signatureBytes = HexFormat.of().parseHex(payloadSignature);
+            log.info("Raw payload: {}", rawPayload);
+
+            if (properties.isVerifySignatures() && !verifySignature(signatureBytes, service, rawPayload)) {
+                log.error("Invalid signature for requestId {}", requestId);
+                return saveFailed(status);
+            }
+
+            MessagePayloadParser.ParsedPayload parsedPayload = payloadParser.parse(rawPayload, service, properties.isVerifySignatures());
+            MessagePayload payload = parsedPayload.getPayload();
+            String updatedRawPayload = parsedPayload.getMetadataJson();
+
+            log.info("Message payload: {}", payload);
+
+            String metadataBase64 = Base64.getEncoder().encodeToString(updatedRawPayload.getBytes(StandardCharsets.UTF_8));
+            String metadataSignatureBase64 = Base64.getEncoder().encodeToString(signatureBytes);
+
+            List<MessageToSign> entries = payload.getMessagesToSign();
+            List<RequestStatusResponseDto> responses = signEntries(payload, metadataBase64, metadataSignatureBase64);
+
+            List<SignedMessage> signedMessages = new ArrayList<>();
+            List<String> entryStatuses = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                RequestStatusResponseDto response = responses.get(i);
+                log.info("TSB response: {}", response);
+
+                signedMessages.add(toSignedMessage(entries.get(i), response));
+                entryStatuses.add(MessageStatus.mapTsbToLocalStatus(response.getStatus()));
+            }
+
+            status.setStatus(MessageStatus.aggregate(entryStatuses));
+            status.setResponse(new MessageResponse(signedMessages));
 
-            JsonNode rawMessageJson = messagesArray.get(i).get("message");
-            String rawPayload = rawMessageJson.get("payload").asText();
+            log.info("Saving signed message with request ID: {}, transaction ID: {} and tenant ID: {}", requestId, payload.getTxId(), payload.getTenantId());
+            // the TSB request ids are kept per entry in the signed messages, the entries are signed concurrently
+            // and there is no single id of the request
+            statusService.save(status, "");
+            return status;
 
+        } catch (Exception ex) {
+            log.error("Failed signing for request ID: {}, reason: {}", requestId, ex.getMessage());
+            return saveFailed(status);
+        }
+    }
+
+    /**
+     * Stores the envelopes together with a PENDING_SIGN status each, in one transaction, and hands the signing
+     * over to background workers. If all workers are busy and the queue is full, a message stays PENDING_SIGN and
+     * can be signed later with /signAllPendingMessages or /signRequest/{requestId}.
+     */
+    private List<MessageStatus> queueForSigning(List<MessageEnvelope> envelopes) {
+        List<MessageStatus> pending = new ArrayList<>();
+        for (MessageEnvelope envelope : envelopes) {
             UUID requestId = envelope.getTransportMetadata().getRequestId();
             log.info("Saving message with ID: {}", requestId);
-            envelopeService.save(envelope);
+            pending.add(MessageStatus.builder()
+                    .type(toResponseType(envelope.getTransportMetadata().getType()))
+                    .status(MessageStatus.PENDING_SIGN)
+                    .requestId(requestId)
+                    .response(new MessageResponse(Collections.emptyList()))
+                    .build());
+        }
+        envelopeService.saveWithInitialStatus(envelopes, pending);
 
+        for (MessageStatus status : pending) {
+            UUID requestId = status.getRequestId();
             try {
-                String service = envelope.getMessage().getPayloadSignatureData().getService();
-                String payloadSignature = envelope.getMessage().getPayloadSignatureData().getSignature();
-                byte[] signatureBytes = HexFormat.of().parseHex(payloadSignature);
-                log.info("Raw payload: {}", rawPayload);
-
-                if (properties.isVerifySignatures() && !verifySignature(signatureBytes, service, rawPayload)) {
-                    log.error("Invalid signature for requestId {}", requestId);
-                    statuses.add(buildFailedStatus(envelope, requestId));
-                    continue;
-                }
-
-                JsonNode payloadNode = objectMapper.readTree(rawPayload);
-
-                if (!payloadNode.isObject()) {
-                    throw new BusinessException("Expected JSON object as rawPayload", BusinessReason.ERROR_INVALID_JSON);
-                }
-
-                if (properties.isVerifySignatures()){
-                    ((ObjectNode) payloadNode).put("rawPayload", rawPayload);
-                    ((ObjectNode) payloadNode).put("serviceName", service);
-                }
-
-                String updatedRawPayload = objectMapper.writeValueAsString(payloadNode);
-
-                MessagePayload payload = objectMapper.readValue(
-                        envelope.getMessage().getPayload(),
-                        MessagePayload.class);
-
-                log.info("Message payload: {}", payload);
-
-                List<SignedMessage> signedMessages = new ArrayList<>();
-                String status = MessageStatus.FAILED;
-                String tsbRequestId = "";
-                String metadataBase64 = Base64.getEncoder().encodeToString(updatedRawPayload.getBytes(StandardCharsets.UTF_8));
-                String metadataSignatureBase64 = Base64.getEncoder().encodeToString(signatureBytes);
-
-                for (MessageToSign msg : payload.getMessagesToSign()) {
-                    log.info("Message to sign: {}", msg);
-
-                    RequestStatusResponseDto response = hsmFacade.sign(
-                            payload.getSigningDeviceKeyId(),
-                            null,
-                            msg.getMessage(),
-                            payload.getAlgorithm().name(),
-                            metadataBase64,
-                            metadataSignatureBase64
-                    );
-                    log.info("TSB response: {}", response);
-
-                    if (response.getResult() != null){
-                        byte[] signatureResponseBytes = Base64.getDecoder().decode(response.getResult());
-                        String signatureHex = HexFormat.of().formatHex(signatureResponseBytes);
-                        log.info("Decoded signature (HEX): {}", signatureHex);
-                        signedMessages.add(new SignedMessage(msg.getMessage(), msg.getIndex(), signatureHex));
-                    } else {
-                        signedMessages.add(new SignedMessage(msg.getMessage(), msg.getIndex(), ""));
-                    }
-
-                    tsbRequestId = response.getId();
-                    status = MessageStatus.mapTsbToLocalStatus(response.getStatus());
-                }
-
-                MessageResponse messageResponse = new MessageResponse(signedMessages);
-
-                MessageStatus messageStatus = MessageStatus.builder()
-                        .type(toResponseType(envelope.getTransportMetadata().getType()))
-                        .status(MessageStatus.mapTsbToLocalStatus(status))
-                        .requestId(requestId)
-                        .response(messageResponse)
-                        .build();
-
-                log.info("Saving signed message with request ID: {}, transaction ID: {} and tenant ID: {}", requestId, payload.getTxId(), payload.getTenantId());
-                statusService.save(messageStatus, tsbRequestId);
-                statuses.add(messageStatus);
-
-            } catch (Exception ex) {
-                log.error("Failed signing for request ID: {}, reason: {}", requestId, ex.getMessage());
-                statuses.add(buildFailedStatus(envelope, requestId));
+                signingWorkerExecutor.execute(() -> signInBackground(requestId));
+            } catch (TaskRejectedException e) {
+                log.warn("No signing worker available for request ID: {}, message stays pending", requestId);
             }
         }
+        return pending;
+    }
 
-        return new MessagesStatusResponse(statuses);
+    private void signInBackground(UUID requestId) {
+        try {
+            signMessages(Collections.singletonList(requestId));
+        } catch (Exception ex) {
+            log.error("Background signing failed for request ID: {}, reason: {}", requestId, ex.getMessage());
+        }
     }
 
     private MessageStatus buildFailedStatus(MessageEnvelope envelope, UUID requestId) {
-        MessageResponse response = new MessageResponse(null);
-        MessageStatus failed = MessageStatus.builder()
+        return saveFailed(newStatus(envelope, requestId));
+    }
+
+    private MessageStatus saveFailed(MessageStatus status) {
+        status.setStatus(MessageStatus.FAILED);
+        status.setResponse(new MessageResponse(null));
+        statusService.save(status, "unknown");
+        return status;
+    }
+
+    private MessageStatus newStatus(MessageEnvelope envelope, UUID requestId) {
+        return MessageStatus.builder()
                 .type(toResponseType(envelope.getTransportMetadata().getType()))
-                .status(MessageStatus.FAILED)
                 .requestId(requestId)
-                .response(response)
                 .build();
-
-        statusService.save(failed, "unknown");
-        return failed;
     }
 
     private boolean verifySignature(byte[] signature, String service, String rawPayload) {
@@ -215,81 +258,68 @@ public class SigningService {
         for (MessageEnvelope envelope : envelopes) {
             UUID requestId = envelope.getTransportMetadata().getRequestId();
             MessageStatus messageStatus = statusService.findByRequestId(requestId).orElseThrow();
+            signAndSave(envelope, messageStatus);
+        }
+    }
+
+    /**
+     * Sends all messagesToSign entries of a payload to the TSB concurrently and waits until none of them is
+     * pending approval anymore (or the approval timeout is reached). An entry that fails is reported as FAILED on
+     * its own; the entries accepted by the TSB keep their request id and status, so that they are not orphaned.
+     *
+     * @return the TSB responses in the order of the entries
+     */
+    private List<RequestStatusResponseDto> signEntries(MessagePayload payload, String metadataBase64, String metadataSignatureBase64) {
+        List<MessageToSign> entries = payload.getMessagesToSign();
 
+        List<CompletableFuture<RequestStatusResponseDto>> pending = new ArrayList<>();
+        for (MessageToSign msg : entries) {
+            log.info("Message to sign: {}", msg);
+            CompletableFuture<RequestStatusResponseDto> response;
             try {
-                String rawPayload = envelope.getMessage().getPayload();
-                String payloadSignature = envelope.getMessage().getPayloadSignatureData().getSignature();
-                byte[] signatureBytes = HexFormat.of().parseHex(payloadSignature);
-                String service = envelope.getMessage().getPayloadSignatureData().getService();
-
-                if (properties.isVerifySignatures() && !verifySignature(signatureBytes, service, rawPayload)) {
-                    log.error("Invalid signature for requestId {}", requestId);
-                    buildFailedStatus(envelope, requestId);
-                    continue;
-                }
-
-                JsonNode payloadNode = objectMapper.readTree(rawPayload);
-
-                if (!payloadNode.isObject()) {
-                    throw new BusinessException("Expected JSON object as rawPayload", BusinessReason.ERROR_INVALID_JSON);
-                }
-
-                if (properties.isVerifySignatures()){
-                    ((ObjectNode) payloadNode).put("rawPayload", rawPayload);
-                    ((ObjectNode) payloadNode).put("serviceName", service);
-                }
-
-                String updatedRawPayload = objectMapper.writeValueAsString(payloadNode);
-
-                MessagePayload payload = objectMapper.readValue(envelope.getMessage().getPayload(), MessagePayload.class);
-
-                List<SignedMessage> signedMessages = new ArrayList<>();
-                String status = MessageStatus.FAILED;
-                String tsbRequestId = "";
-                String metadataBase64 = Base64.getEncoder().encodeToString(updatedRawPayload.getBytes(StandardCharsets.UTF_8));
-                String metadataSignatureBase64 = Base64.getEncoder().encodeToString(signatureBytes);
-
-                for (MessageToSign msg : payload.getMessagesToSign()) {
-
-                    RequestStatusResponseDto response = hsmFacade.sign(
-                            payload.getSigningDeviceKeyId(),
-                            null,
-                            msg.getMessage(),
-                            payload.getAlgorithm().name(),
-                            metadataBase64,
-                            metadataSignatureBase64
-                    );
-                    if (response.getResult() != null){
-                        byte[] signatureResponseBytes = Base64.getDecoder().decode(response.getResult());
-                        String signatureHex = HexFormat.of().formatHex(signatureResponseBytes);
-                        log.info("Decoded signature (HEX): {}", signatureHex);
-                        signedMessages.add(new SignedMessage(msg.getMessage(), msg.getIndex(), signatureHex));
-                    } else {
-                        signedMessages.add(new SignedMessage(msg.getMessage(), msg.getIndex(), ""));
-                    }
-
-                    tsbRequestId = response.getId();
-                    status = MessageStatus.mapTsbToLocalStatus(response.getStatus());
-                }
-
-                messageStatus.setStatus(status);
-                messageStatus.setResponse(new MessageResponse(signedMessages));
-                log.info("Saving signed message with request ID: {}, transaction ID: {} and tenant ID: {}", requestId, payload.getTxId(), payload.getTenantId());
-                statusService.save(messageStatus, tsbRequestId);
-
-            } catch (Exception ex) {
-
-                if (ex instanceof BusinessException) {
-                    log.error("Failed signing for request ID: {}", ex.getMessage());
-                } else {
-                    log.error("Failed signing for request ID: {}", requestId);
-                }
-                messageStatus.setStatus(MessageStatus.FAILED);
-                messageStatus.setResponse(new MessageResponse(null));
-                statusService.save(messageStatus, "unknown");
-                log.error("Signing failed for requestId {}", requestId);
+                // returns right away, the approvals of all entries are awaited together below
+                response = hsmFacade.signAsync(
+                        payload.getSigningDeviceKeyId(),
+                        null,
+                        msg.getMessage(),
+                        payload.getAlgorithm().name(),
+                        metadataBase64,
+                        metadataSignatureBase64
+                );
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
             }
+            pending.add(response);
+        }
+
+        List<RequestStatusResponseDto> responses = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                responses.add(pending.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.error("Failed signing message {}: {}", entries.get(i).getIndex(), cause.getMessage());
+                responses.add(failedResponse());
+            }
+        }
+        return responses;
+    }
+
+    // an entry the TSB did not accept, it has no request id and is not polled
+    private static RequestStatusResponseDto failedResponse() {
+        RequestStatusResponseDto response = new RequestStatusResponseDto();
+        response.setStatus("FAILED");
+        return response;
+    }
+
+    private SignedMessage toSignedMessage(MessageToSign msg, RequestStatusResponseDto response) {
+        String signatureHex = "";
+        if (response.getResult() != null){
+            byte[] signatureResponseBytes = Base64.getDecoder().decode(response.getResult());
+            signatureHex = HexFormat.of().formatHex(signatureResponseBytes);
+            log.info("Decoded signature (HEX): {}", signatureHex);
         }
+        return new SignedMessage(msg.getMessage(), msg.getIndex(), signatureHex, response.getId());
     }
 
     private ResponseType toResponseType(RequestType type) {
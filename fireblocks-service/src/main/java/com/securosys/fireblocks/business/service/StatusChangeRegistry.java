@@ -0,0 +1,125 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process notifications about status changes of requests, used by the long-poll mode of /messagesStatus.
+ * {@link MessageStatusService} reports every committed status change; listeners registered for one of the
+ * changed request IDs are called once, on a separate notifier thread.
+ * <p>
+ * Only changes made by this node are reported. Changes committed by other nodes sharing the database are found
+ * by the periodic checks scheduled with {@link #recheckEvery}.
+ */
+@Slf4j
+@Component
+public class StatusChangeRegistry {
+
+    private final Map<UUID, Set<Listener>> listeners = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService notifier;
+
+    public StatusChangeRegistry() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("status-change-");
+        threadFactory.setDaemon(true);
+        this.notifier = Executors.newScheduledThreadPool(2, threadFactory);
+    }
+
+    /**
+     * Registers a callback for the next status change of any of the given requests.
+     *
+     * @return handle to remove the registration again, must be called once the caller stops waiting
+     */
+    public Runnable register(Collection<UUID> requestIds, Runnable onChange) {
+        List<UUID> ids = List.copyOf(requestIds);
+        Listener listener = new Listener(onChange);
+        for (UUID requestId : ids) {
+            listeners.compute(requestId, (id, registered) -> {
+                Set<Listener> set = registered != null ? registered : ConcurrentHashMap.newKeySet();
+                set.add(listener);
+                return set;
+            });
+        }
+        return () -> {
+            for (UUID requestId : ids) {
+                listeners.computeIfPresent(requestId, (id, registered) -> {
+                    registered.remove(listener);
+                    return registered.isEmpty() ? null : registered;
+                });
+            }
+        };
+    }
+
+    public void notifyChanged(UUID requestId) {
+        Set<Listener> registered = listeners.get(requestId);
+        if (registered == null) {
+            return;
+        }
+        for (Listener listener : registered) {
+            if (listener.fired.compareAndSet(false, true)) {
+                try {
+                    notifier.execute(listener.onChange);
+                } catch (RejectedExecutionException e) {
+                    log.debug("Status change of {} not delivered, shutting down", requestId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the check periodically on the notifier threads until the returned handle is called.
+     */
+    public Runnable recheckEvery(long periodMillis, Runnable check) {
+        try {
+            ScheduledFuture<?> future = notifier.scheduleWithFixedDelay(() -> {
+                try {
+                    check.run();
+                } catch (Exception e) {
+                    log.warn("Status recheck failed: {}", e.getMessage());
+                }
+            }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+            return () -> future.cancel(false);
+        } catch (RejectedExecutionException e) {
+            log.debug("Status recheck not scheduled, shutting down");
+            return () -> { };
+        }
+    }
+
+    /**
+     * Number of request IDs somebody is currently waiting for.
+     */
+    public int getWatchedRequestCount() {
+        return listeners.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdownNow();
+    }
+
+    private static class Listener {
+        private final Runnable onChange;
+        private final AtomicBoolean fired = new AtomicBoolean();
+
+        Listener(Runnable onChange) {
+            this.onChange = onChange;
+        }
+    }
+}
@@ -6,15 +6,30 @@ package com.securosys.fireblocks.business.service;
 import com.securosys.fireblocks.business.dto.customServer.*;
 import com.securosys.fireblocks.business.dto.response.RequestStatusResponseDto;
 import com.securosys.fireblocks.business.repository.MessageStatusRepository;
-import com.securosys.fireblocks.datamodel.entities.MessageResponseEntity;
 import com.securosys.fireblocks.datamodel.entities.MessageStatusEntity;
-import com.securosys.fireblocks.datamodel.entities.SignedMessageEntity;
+import com.securosys.fireblocks.configuration.CustomServerProperties;
+import com.securosys.fireblocks.configuration.SigningExecutorConfiguration;
+import com.securosys.fireblocks.configuration.TsbProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
-
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -23,78 +38,214 @@ public class StatusService {
 
     private final MessageStatusRepository repository;
     private final TsbService tsbService;
-
+    private final MessageStatusService messageStatusService;
+    private final TsbProperties tsbProperties;
+    private final CustomServerProperties customServerProperties;
+    private final StatusChangeRegistry statusChangeRegistry;
+    private final TerminalStatusCache terminalStatusCache;
+    private final TsbCircuitBreaker tsbCircuitBreaker;
+    @Qualifier(SigningExecutorConfiguration.STATUS_SYNC_EXECUTOR)
+    private final TaskExecutor statusSyncExecutor;
+
+    /**
+     * Final statuses are served from the {@link TerminalStatusCache}, only pending and unknown requests are loaded
+     * from the database.
+     */
     public MessagesStatusResponse getStatuses(MessagesStatusRequest request) {
-        List<MessageStatusEntity> entities = repository.findByRequestIdIn(request.getRequestsIds());
-        return new MessagesStatusResponse(toDtoList(entities));
-    }
+        Map<UUID, MessageStatus> statuses = new LinkedHashMap<>();
+        List<UUID> misses = new ArrayList<>();
+        for (UUID requestId : request.getRequestsIds()) {
+            MessageStatus cached = terminalStatusCache.get(requestId);
+            if (cached != null) {
+                statuses.put(requestId, cached);
+            } else {
+                statuses.put(requestId, null);
+                misses.add(requestId);
+            }
+        }
 
-    public MessageStatus toDto(MessageStatusEntity entity) {
-        return MessageStatus.builder()
-                .requestId(entity.getRequestId())
-                .type(entity.getType())
-                .status(entity.getStatus())
-                .response(toDto(entity.getResponse()))
-                .build();
+        if (!misses.isEmpty()) {
+            long generation = terminalStatusCache.generation();
+            for (MessageStatus status : toDtoList(repository.findByRequestIdIn(misses))) {
+                terminalStatusCache.put(status, generation);
+                statuses.put(status.getRequestId(), status);
+            }
+        }
+
+        return new MessagesStatusResponse(statuses.values().stream().filter(Objects::nonNull).toList());
     }
 
-    private MessageResponse toDto(MessageResponseEntity entity) {
-        if (entity == null) return null;
+    /**
+     * Long-poll variant of {@link #getStatuses(MessagesStatusRequest)}: if one of the requests is still pending,
+     * the response is held until any of the requests changes its status or the timeout has passed. The servlet
+     * thread is released while waiting.
+     * <p>
+     * Changes made by this node are reported right away by the {@link StatusChangeRegistry}. Changes made by other
+     * nodes sharing the database are found by reading the statuses again every
+     * {@code custom-server.longPollRecheckSeconds}.
+     *
+     * @param timeoutSeconds requested wait time, capped by {@code custom-server.maxLongPollTimeoutSeconds}
+     */
+    public DeferredResult<MessagesStatusResponse> getStatusesLongPoll(MessagesStatusRequest request, long timeoutSeconds) {
+        long timeout = Math.max(0, Math.min(timeoutSeconds, customServerProperties.getMaxLongPollTimeoutSeconds()));
+        DeferredResult<MessagesStatusResponse> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(timeout));
+
+        // register before reading, so that no change between the read and the registration is missed
+        Runnable unregister = statusChangeRegistry.register(request.getRequestsIds(),
+                () -> result.setResult(getStatuses(request)));
+        result.onCompletion(unregister);
+        result.onTimeout(() -> result.setResult(getStatuses(request)));
+        result.onError(error -> unregister.run());
+
+        MessagesStatusResponse current = getStatuses(request);
+        boolean anyPending = current.getStatuses().stream()
+                .anyMatch(status -> MessageStatus.PENDING_SIGN.equals(status.getStatus()));
+        if (!anyPending || timeout == 0) {
+            result.setResult(current);
+            return result;
+        }
 
-        return new MessageResponse(
-                entity.getSignedMessages().stream().map(this::toDto).toList()
-        );
+        long recheckSeconds = customServerProperties.getLongPollRecheckSeconds();
+        if (recheckSeconds > 0) {
+            Map<UUID, String> seen = statusesById(current);
+            Runnable stopRecheck = statusChangeRegistry.recheckEvery(TimeUnit.SECONDS.toMillis(recheckSeconds), () -> {
+                MessagesStatusResponse latest = getStatuses(request);
+                if (!statusesById(latest).equals(seen)) {
+                    result.setResult(latest);
+                }
+            });
+            // replaces the completion callback registered above
+            result.onCompletion(() -> {
+                unregister.run();
+                stopRecheck.run();
+            });
+        }
+        return result;
     }
 
-    private SignedMessage toDto(SignedMessageEntity entity) {
-        return new SignedMessage(entity.getMessage(), entity.getIndex(), entity.getSignature());
+    private static Map<UUID, String> statusesById(MessagesStatusResponse response) {
+        Map<UUID, String> statuses = new HashMap<>();
+        for (MessageStatus status : response.getStatuses()) {
+            statuses.put(status.getRequestId(), status.getStatus());
+        }
+        return statuses;
+    }
+
+    public MessageStatus toDto(MessageStatusEntity entity) {
+        return messageStatusService.toDomain(entity);
     }
 
     public List<MessageStatus> toDtoList(List<MessageStatusEntity> entities) {
-        return entities.stream().map(this::toDto).toList();
+        return messageStatusService.toDomainList(entities);
     }
 
+    /**
+     * Polls the TSB for all pending requests that are due (see {@code next_poll_at}). Up to
+     * {@code tsb.statusSync.concurrency} requests are polled in parallel, no database transaction is held open
+     * while waiting for the TSB. Each result is committed in its own short transaction, which also schedules the
+     * next poll of requests that are still pending. Returns once all due requests have been polled. The sync is
+     * skipped while the TSB circuit for request status polls is open.
+     */
     public void syncPendingStatuses() {
-        List<MessageStatusEntity> pendingEntities = repository.findByStatus(MessageStatus.PENDING_SIGN);
+        if (tsbCircuitBreaker.isOpen(TsbOperation.REQUEST_STATUS)) {
+            log.info("TSB circuit for request status is open, skipping the status sync");
+            return;
+        }
+        int batchSize = tsbProperties.getStatusSync().getBatchSize();
+        Set<UUID> polled = new HashSet<>();
 
-        if (pendingEntities.isEmpty()) {
+        List<MessageStatusEntity> dueEntities = messageStatusService.findDueForPoll(batchSize);
+        if (dueEntities.isEmpty()) {
             log.debug("No pending messages to sync");
             return;
         }
 
-        for (MessageStatusEntity entity : pendingEntities) {
-            String requestId = String.valueOf(entity.getRequestId());
-            String tsbRequestId = String.valueOf(entity.getTsbRequestId());
-
-            if (tsbRequestId == null || tsbRequestId.isBlank()){
-                continue;
+        while (!dueEntities.isEmpty()) {
+            List<CompletableFuture<Void>> syncs = new ArrayList<>();
+            for (MessageStatusEntity entity : dueEntities) {
+                if (!polled.add(entity.getRequestId())) {
+                    // rescheduling failed, do not poll it again within this run
+                    continue;
+                }
+                syncs.add(CompletableFuture.runAsync(() -> syncPendingStatus(entity), statusSyncExecutor)
+                        .exceptionally(ex -> {
+                            log.warn("Failed to sync TSB status for {}: {}", entity.getRequestId(), ex.getMessage(), ex);
+                            messageStatusService.deferNextPoll(entity.getRequestId());
+                            return null;
+                        }));
             }
+            if (syncs.isEmpty()) {
+                break;
+            }
+            CompletableFuture.allOf(syncs.toArray(CompletableFuture[]::new)).join();
 
-            try {
-                RequestStatusResponseDto tsbResp = tsbService.getRequest(tsbRequestId);
-                String tsbStatus = tsbResp.getStatus();
-                String mapped = MessageStatus.mapTsbToLocalStatus(tsbStatus);
-
-                if (!Objects.equals(entity.getStatus(), mapped)) {
-                    log.debug("Request {}: status changed from {} -> {} (TSB: {})",
-                            requestId, entity.getStatus(), mapped, tsbStatus);
-
-                    entity.setStatus(mapped);
+            dueEntities = dueEntities.size() < batchSize
+                    ? List.of()
+                    : messageStatusService.findDueForPoll(batchSize);
+        }
+        log.debug("Polled {} pending requests", polled.size());
+    }
 
-                    if (MessageStatus.SIGNED.equals(mapped)) {
-                        MessageResponseEntity response = entity.getResponse();
-                        if (response != null) {
-                            for (SignedMessageEntity signed : response.getSignedMessages()) {
-                                signed.setSignature(tsbResp.getResult());
-                            }
-                        }
-                    }
+    /**
+     * Polls the TSB for every message of the request that is not signed yet, each by its own TSB request id.
+     * Requests stored before the id was kept per message are polled by the single id of the request.
+     */
+    private void syncPendingStatus(MessageStatusEntity entity) {
+        MessageResponse response = messageStatusService.toDomain(entity).getResponse();
+        List<SignedMessage> messages = response != null && response.getSignedMessages() != null
+                ? response.getSignedMessages()
+                : List.of();
+
+        List<String> statuses = new ArrayList<>();
+        Map<Integer, String> signatures = new HashMap<>();
+
+        if (messages.stream().anyMatch(message -> hasText(message.getTsbRequestId()))) {
+            for (SignedMessage message : messages) {
+                if (hasText(message.getSignature())) {
+                    statuses.add(MessageStatus.SIGNED);
+                    continue;
+                }
+                if (!hasText(message.getTsbRequestId())) {
+                    statuses.add(MessageStatus.PENDING_SIGN);
+                    continue;
+                }
 
-                    repository.save(entity);
+                RequestStatusResponseDto tsbResp = tsbService.getRequest(message.getTsbRequestId());
+                String mapped = MessageStatus.mapTsbToLocalStatus(tsbResp.getStatus());
+                if (MessageStatus.SIGNED.equals(mapped) && tsbResp.getResult() != null) {
+                    signatures.put(message.getIndex(), toHexSignature(tsbResp.getResult()));
                 }
-            } catch (Exception ex) {
-                log.warn("Failed to sync TSB status for {}: {}", requestId, ex.getMessage(), ex);
+                statuses.add(mapped);
             }
+        } else if (hasText(entity.getTsbRequestId())) {
+            RequestStatusResponseDto tsbResp = tsbService.getRequest(entity.getTsbRequestId());
+            String mapped = MessageStatus.mapTsbToLocalStatus(tsbResp.getStatus());
+            if (MessageStatus.SIGNED.equals(mapped) && tsbResp.getResult() != null) {
+                for (SignedMessage message : messages) {
+                    signatures.put(message.getIndex(), toHexSignature(tsbResp.getResult()));
+                }
+            }
+            statuses.add(mapped);
+        } else {
+            // nothing sent to the TSB yet (e.g. waiting for a signing worker)
+            messageStatusService.deferNextPoll(entity.getRequestId());
+            return;
+        }
+
+        String aggregated = MessageStatus.aggregate(statuses);
+        if (!Objects.equals(entity.getStatus(), aggregated) || !signatures.isEmpty()) {
+            log.debug("Request {}: status changed from {} -> {} (messages: {})",
+                    entity.getRequestId(), entity.getStatus(), aggregated, statuses);
         }
+        // also schedules the next poll if the request is still pending
+        messageStatusService.updateSyncedStatus(entity.getRequestId(), aggregated, signatures);
+    }
+
+    private static String toHexSignature(String base64Signature) {
+        return HexFormat.of().formatHex(Base64.getDecoder().decode(base64Signature));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
     }
 }
@@ -0,0 +1,132 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import com.securosys.fireblocks.business.dto.customServer.MessageStatus;
+import com.securosys.fireblocks.configuration.CustomServerProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of requests in a final state (SIGNED or FAILED), which do not change anymore unless they are
+ * signed again explicitly. Entries expire after a TTL. Pending requests are never cached.
+ * <p>
+ * To avoid caching a value read before a concurrent change, readers take the current {@link #generation()}
+ * before reading from the database and pass it to {@link #put}; the value is dropped if an invalidation happened
+ * in between.
+ * <p>
+ * Invalidations are local to this node. With several nodes sharing the database, a request signed again on
+ * another node stays cached here with its old final status until the entry expires after
+ * {@code custom-server.statusCache.ttlSeconds}.
+ */
+@Component
+public class TerminalStatusCache {
+
+    private final CustomServerProperties.StatusCache settings;
+    private final Map<UUID, CachedStatus> entries;
+    private final Clock clock;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public TerminalStatusCache(CustomServerProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    /**
+     * @param clock the time source of the TTL
+     */
+    public TerminalStatusCache(CustomServerProperties properties, Clock clock) {
+        this.settings = properties.getStatusCache();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CachedStatus> eldest) {
+                boolean evict = size() > settings.getMaxEntries();
+                if (evict) {
+                    evictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+    }
+
+    public MessageStatus get(UUID requestId) {
+        synchronized (entries) {
+            CachedStatus cached = entries.get(requestId);
+            if (cached != null && cached.expiresAt < clock.millis()) {
+                entries.remove(requestId);
+                evictions.incrementAndGet();
+                cached = null;
+            }
+            if (cached == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return cached.status;
+        }
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the status if it is final and no invalidation happened since {@code readGeneration} was taken.
+     */
+    public void put(MessageStatus status, long readGeneration) {
+        if (settings.getMaxEntries() == 0 || !isTerminal(status.getStatus())) {
+            return;
+        }
+        long expiresAt = clock.millis() + TimeUnit.SECONDS.toMillis(settings.getTtlSeconds());
+        synchronized (entries) {
+            if (generation.get() == readGeneration) {
+                entries.put(status.getRequestId(), new CachedStatus(status, expiresAt));
+            }
+        }
+    }
+
+    public void invalidate(UUID requestId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(requestId);
+        }
+    }
+
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        synchronized (entries) {
+            statistics.put("size", (long) entries.size());
+        }
+        statistics.put("hits", hits.get());
+        statistics.put("misses", misses.get());
+        statistics.put("evictions", evictions.get());
+        return statistics;
+    }
+
+    public static boolean isTerminal(String status) {
+        return MessageStatus.SIGNED.equals(status) || MessageStatus.FAILED.equals(status);
+    }
+
+    private static class CachedStatus {
+        private final MessageStatus status;
+        private final long expiresAt;
+
+        CachedStatus(MessageStatus status, long expiresAt) {
+            this.status = status;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
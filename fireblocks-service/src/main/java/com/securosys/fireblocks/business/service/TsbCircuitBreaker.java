@@ -0,0 +1,336 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import com.securosys.fireblocks.business.exceptions.BusinessException;
+import com.securosys.fireblocks.business.exceptions.BusinessReason;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+
+/**
+ * Circuit breaker per TSB endpoint and {@link TsbOperation}, and bulkhead per operation. A call needs a
+ * {@link Permit}, which is refused right away if the circuit of the operation on the endpoint is open. If the
+ * operation already has its maximum number of calls in flight on this node, the call waits up to
+ * {@code bulkheadMaxWaitMillis} for one of them to complete and is refused after that. Async calls wait in a queue
+ * without occupying a thread.
+ * <p>
+ * A circuit opens after {@code failureThreshold} consecutive failures (connection errors, timeouts and HTTP 5xx
+ * answers). After {@code openSeconds} a single trial call is let through: if it succeeds, the circuit closes, if
+ * it fails, the circuit stays open for another period. As the circuits are kept per endpoint, a failing TSB
+ * instance does not refuse the calls to the healthy ones. Refused calls fail with
+ * {@link BusinessReason#ERROR_TSB_UNAVAILABLE}, without waiting for a timeout or occupying a connection.
+ */
+@Slf4j
+@Component
+public class TsbCircuitBreaker {
+
+    private static final Permit UNGUARDED = new Permit(null, null);
+
+    private final TsbProperties.CircuitBreaker settings;
+    private final TsbEndpointPool endpointPool;
+    private final Clock clock;
+    private final Map<TsbOperation, Bulkhead> bulkheads = new EnumMap<>(TsbOperation.class);
+    private final Map<String, Map<TsbOperation, Circuit>> circuits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TsbCircuitBreaker(TsbProperties tsbProperties, TsbEndpointPool endpointPool) {
+        this(tsbProperties, endpointPool, Clock.systemUTC());
+    }
+
+    /**
+     * @param clock the time source of the open periods
+     */
+    public TsbCircuitBreaker(TsbProperties tsbProperties, TsbEndpointPool endpointPool, Clock clock) {
+        this.settings = tsbProperties.getCircuitBreaker();
+        this.endpointPool = endpointPool;
+        this.clock = clock;
+        bulkheads.put(TsbOperation.SIGN, new Bulkhead(settings.getSignMaxConcurrentCalls()));
+        bulkheads.put(TsbOperation.REQUEST_STATUS, new Bulkhead(settings.getRequestStatusMaxConcurrentCalls()));
+        bulkheads.put(TsbOperation.KEY_MANAGEMENT, new Bulkhead(settings.getKeyManagementMaxConcurrentCalls()));
+        bulkheads.put(TsbOperation.LICENSE, new Bulkhead(settings.getLicenseMaxConcurrentCalls()));
+    }
+
+    /**
+     * Returns the permit for one call to the endpoint, which must be completed exactly once with its outcome.
+     * Waits for a free slot of the bulkhead if needed.
+     *
+     * @throws BusinessException with {@link BusinessReason#ERROR_TSB_UNAVAILABLE} if the call is refused
+     */
+    public Permit acquire(String endpoint, TsbOperation operation) {
+        try {
+            return acquireAsync(endpoint, operation).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore the interrupted status
+            throw new BusinessException("Interrupted while waiting for a TSB call slot", BusinessReason.ERROR_IN_SUBSYSTEM);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BusinessException refused) {
+                throw refused;
+            }
+            throw new BusinessException("Error acquiring a TSB call slot", BusinessReason.ERROR_IN_SUBSYSTEM, e.getCause());
+        }
+    }
+
+    /**
+     * Like {@link #acquire}, but completes once the call is admitted instead of waiting for it, or exceptionally
+     * with a {@link BusinessException} if it is refused.
+     */
+    public CompletableFuture<Permit> acquireAsync(String endpoint, TsbOperation operation) {
+        if (!settings.isEnabled()) {
+            return CompletableFuture.completedFuture(UNGUARDED);
+        }
+        Circuit circuit = circuit(endpoint, operation);
+        if (circuit.isOpen()) {
+            return CompletableFuture.failedFuture(circuitOpen(endpoint, operation));
+        }
+        Bulkhead bulkhead = bulkheads.get(operation);
+        CompletableFuture<Void> slot = bulkhead.acquire(settings.getBulkheadMaxWaitMillis());
+        BiFunction<Void, Throwable, Permit> admit = (admitted, timeout) -> {
+            if (timeout != null) {
+                throw new BusinessException("Too many concurrent TSB calls for " + operation, BusinessReason.ERROR_TSB_UNAVAILABLE);
+            }
+            if (!circuit.tryEnter()) {
+                bulkhead.release();
+                throw circuitOpen(endpoint, operation);
+            }
+            return new Permit(circuit, bulkhead);
+        };
+        // a call that waited continues on another thread, not on the one completing the call that freed its slot
+        return slot.isDone() ? slot.handle(admit) : slot.handleAsync(admit);
+    }
+
+    private static BusinessException circuitOpen(String endpoint, TsbOperation operation) {
+        return new BusinessException("TSB " + endpoint + " is unavailable for " + operation + ", circuit is open",
+                BusinessReason.ERROR_TSB_UNAVAILABLE);
+    }
+
+    /**
+     * Whether calls of the operation to the endpoint are currently refused, without taking the trial call of a half
+     * open circuit.
+     */
+    public boolean isOpen(String endpoint, TsbOperation operation) {
+        return settings.isEnabled() && circuit(endpoint, operation).isOpen();
+    }
+
+    /**
+     * Whether calls of the operation are currently refused by all endpoints.
+     */
+    public boolean isOpen(TsbOperation operation) {
+        return settings.isEnabled() && endpointPool.getEndpoints().stream()
+                .allMatch(endpoint -> circuit(endpoint.getUrl(), operation).isOpen());
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        List<TsbEndpointPool.Endpoint> endpoints = endpointPool.getEndpoints();
+        for (Map.Entry<TsbOperation, Bulkhead> bulkhead : bulkheads.entrySet()) {
+            TsbOperation operation = bulkhead.getKey();
+            Map<String, Object> operationStatistics = new LinkedHashMap<>();
+            operationStatistics.put("callsInFlight", bulkhead.getValue().callsInFlight());
+            operationStatistics.put("maxConcurrentCalls", bulkhead.getValue().maxConcurrentCalls);
+            Map<String, Object> circuitStatistics = new LinkedHashMap<>();
+            for (TsbEndpointPool.Endpoint endpoint : endpoints) {
+                circuitStatistics.put(endpoint.getUrl(), circuit(endpoint.getUrl(), operation).getStatistics());
+            }
+            operationStatistics.put("circuits", circuitStatistics);
+            statistics.put(operation.name(), operationStatistics);
+        }
+        return statistics;
+    }
+
+    private Circuit circuit(String endpoint, TsbOperation operation) {
+        return circuits.computeIfAbsent(endpoint, url -> {
+            Map<TsbOperation, Circuit> endpointCircuits = new EnumMap<>(TsbOperation.class);
+            for (TsbOperation each : TsbOperation.values()) {
+                endpointCircuits.put(each, new Circuit(url, each));
+            }
+            return endpointCircuits;
+        }).get(operation);
+    }
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Semaphore whose waiters are queued futures, completed in order as slots are released.
+     */
+    private static final class Bulkhead {
+        private final Semaphore semaphore;
+        private final int maxConcurrentCalls;
+        private final Queue<CompletableFuture<Void>> waiters = new ConcurrentLinkedQueue<>();
+
+        Bulkhead(int maxConcurrentCalls) {
+            this.semaphore = new Semaphore(maxConcurrentCalls);
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        CompletableFuture<Void> acquire(long maxWaitMillis) {
+            if (waiters.isEmpty() && semaphore.tryAcquire()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (maxWaitMillis == 0) {
+                return CompletableFuture.failedFuture(new TimeoutException());
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            waiter.orTimeout(maxWaitMillis, TimeUnit.MILLISECONDS)
+                    .whenComplete((admitted, timeout) -> {
+                        if (timeout != null) {
+                            waiters.remove(waiter);
+                        }
+                    });
+            // a slot may have been released before the waiter was queued
+            admitWaiters();
+            return waiter;
+        }
+
+        void release() {
+            semaphore.release();
+            admitWaiters();
+        }
+
+        private void admitWaiters() {
+            while (!waiters.isEmpty() && semaphore.tryAcquire()) {
+                CompletableFuture<Void> waiter = waiters.poll();
+                // hands the slot back if the waiter is gone meanwhile, e.g. timed out
+                if (waiter == null || !waiter.complete(null)) {
+                    semaphore.release();
+                }
+            }
+        }
+
+        int callsInFlight() {
+            return maxConcurrentCalls - semaphore.availablePermits();
+        }
+    }
+
+    private final class Circuit {
+        private final String endpoint;
+        private final TsbOperation operation;
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean trialInFlight;
+
+        Circuit(String endpoint, TsbOperation operation) {
+            this.endpoint = endpoint;
+            this.operation = operation;
+        }
+
+        synchronized boolean tryEnter() {
+            if (state == State.OPEN) {
+                if (clock.millis() < openUntil) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = false;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+            }
+            return true;
+        }
+
+        synchronized boolean isOpen() {
+            return (state == State.OPEN && clock.millis() < openUntil)
+                    || (state == State.HALF_OPEN && trialInFlight);
+        }
+
+        synchronized void onSuccess() {
+            if (state != State.CLOSED) {
+                log.info("TSB circuit for {} on {} closed", operation, endpoint);
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            trialInFlight = false;
+        }
+
+        synchronized void onFailure() {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || consecutiveFailures >= settings.getFailureThreshold()) {
+                if (state != State.OPEN) {
+                    log.warn("TSB circuit for {} on {} opened after {} consecutive failures", operation, endpoint,
+                            consecutiveFailures);
+                }
+                state = State.OPEN;
+                openUntil = clock.millis() + TimeUnit.SECONDS.toMillis(settings.getOpenSeconds());
+                trialInFlight = false;
+            }
+        }
+
+        synchronized Map<String, Object> getStatistics() {
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("state", state.name());
+            statistics.put("consecutiveFailures", consecutiveFailures);
+            return statistics;
+        }
+    }
+
+    /**
+     * Admission of one call. Completing it records the outcome in the circuit and frees the bulkhead slot;
+     * further completions are ignored.
+     */
+    public static final class Permit {
+        private final Circuit circuit;
+        private final Bulkhead bulkhead;
+        private boolean completed;
+
+        private Permit(Circuit circuit, Bulkhead bulkhead) {
+            this.circuit = circuit;
+            this.bulkhead = bulkhead;
+        }
+
+        /**
+         * Records an answer of the TSB, HTTP 5xx counts as failure.
+         */
+        public void completed(int statusCode) {
+            if (statusCode >= 500) {
+                failed();
+            } else {
+                complete(true);
+            }
+        }
+
+        /**
+         * Records a call that got no answer, e.g. a connection error or timeout.
+         */
+        public void failed() {
+            complete(false);
+        }
+
+        private void complete(boolean success) {
+            synchronized (this) {
+                if (circuit == null || completed) {
+                    return;
+                }
+                completed = true;
+            }
+            if (success) {
+                circuit.onSuccess();
+            } else {
+                circuit.onFailure();
+            }
+            bulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import com.securosys.fireblocks.configuration.TsbProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The TSB instances calls are routed to: {@code tsb.tsbRestApi} followed by {@code tsb.tsbRestApis}.
+ * <p>
+ * Each call goes to the healthy endpoint with the lowest expected latency, i.e. the moving average (EWMA) of its
+ * latency times the calls it is already serving, so load spreads over the instances as they slow down. An endpoint
+ * becomes unhealthy after {@code unhealthyAfterFailures} failed calls or probes in a row (no connection, timeout or
+ * HTTP 5xx) and healthy again with the next successful one. If no endpoint is healthy, all of them are tried.
+ * <p>
+ * A signing request is only known to the instance that accepted it, so the instance is pinned to its request id
+ * and status polls go there as long as it is healthy. The pins are kept in a bounded LRU map.
+ */
+@Slf4j
+@Component
+public class TsbEndpointPool {
+
+    private final TsbProperties tsbProperties;
+    private final TsbProperties.Endpoints settings;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, Endpoint> pins;
+    private final AtomicLong pinEvictions = new AtomicLong();
+
+    public TsbEndpointPool(TsbProperties tsbProperties) {
+        this.tsbProperties = tsbProperties;
+        this.settings = tsbProperties.getEndpoints();
+        this.pins = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Endpoint> eldest) {
+                boolean evict = size() > settings.getMaxPinnedRequests();
+                if (evict) {
+                    pinEvictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * The configured endpoints in configuration order. Read from the properties on every call, so a changed
+     * configuration takes effect without a restart; the state of an endpoint is kept by its URL.
+     */
+    public List<Endpoint> getEndpoints() {
+        Set<String> urls = new LinkedHashSet<>();
+        String primary = tsbProperties.getTsbRestApi();
+        if (primary != null && !primary.isBlank()) {
+            urls.add(primary);
+        }
+        if (tsbProperties.getTsbRestApis() != null) {
+            tsbProperties.getTsbRestApis().stream()
+                    .filter(url -> url != null && !url.isBlank())
+                    .forEach(urls::add);
+        }
+        if (urls.isEmpty()) {
+            // nothing configured, calls fail as they did with a single endpoint
+            return List.of(new Endpoint(String.valueOf(primary)));
+        }
+
+        List<Endpoint> result = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            result.add(endpoints.computeIfAbsent(url, Endpoint::new));
+        }
+        return result;
+    }
+
+    /**
+     * Selects the endpoint for a call.
+     *
+     * @param requestId the TSB request the call refers to, whose pinned endpoint is preferred; or {@code null}
+     * @param avoid     the endpoint the previous attempt of the call failed on, used only if no other is healthy;
+     *                  or {@code null}
+     */
+    public Endpoint select(String requestId, Endpoint avoid) {
+        List<Endpoint> all = getEndpoints();
+        if (all.size() == 1) {
+            return all.get(0);
+        }
+
+        if (requestId != null) {
+            Endpoint pinned;
+            synchronized (pins) {
+                pinned = pins.get(requestId);
+            }
+            if (pinned != null && pinned.healthy && pinned != avoid && all.contains(pinned)) {
+                return pinned;
+            }
+        }
+
+        List<Endpoint> candidates = all.stream().filter(endpoint -> endpoint.healthy && endpoint != avoid).toList();
+        if (candidates.isEmpty()) {
+            candidates = all.stream().filter(endpoint -> endpoint != avoid).toList();
+        }
+        return candidates.stream().min(Comparator.comparingDouble(Endpoint::score)).orElse(all.get(0));
+    }
+
+    /**
+     * The endpoints other than the given one, in the order a request unknown to it is looked for.
+     */
+    public List<Endpoint> others(Endpoint endpoint) {
+        return getEndpoints().stream()
+                .filter(other -> other != endpoint)
+                .sorted(Comparator.comparing((Endpoint other) -> !other.healthy).thenComparingDouble(Endpoint::score))
+                .toList();
+    }
+
+    /**
+     * Remembers that the TSB request was accepted by the endpoint, so that its status is polled there.
+     */
+    public void pin(String requestId, Endpoint endpoint) {
+        if (requestId == null || settings.getMaxPinnedRequests() == 0 || getEndpoints().size() == 1) {
+            return;
+        }
+        synchronized (pins) {
+            pins.put(requestId, endpoint);
+        }
+    }
+
+    /**
+     * Records the start of a call to the endpoint, which is ended by {@link #succeeded} or {@link #failed}.
+     */
+    public void started(Endpoint endpoint) {
+        endpoint.inFlight.incrementAndGet();
+    }
+
+    public void succeeded(Endpoint endpoint, long latencyMillis) {
+        endpoint.inFlight.decrementAndGet();
+        recordSuccess(endpoint, latencyMillis);
+    }
+
+    public void failed(Endpoint endpoint) {
+        endpoint.inFlight.decrementAndGet();
+        recordFailure(endpoint);
+    }
+
+    /**
+     * Records the result of a health probe, which does not count as a call in flight.
+     */
+    public void probed(Endpoint endpoint, boolean healthy, long latencyMillis) {
+        if (healthy) {
+            recordSuccess(endpoint, latencyMillis);
+        } else {
+            recordFailure(endpoint);
+        }
+    }
+
+    private void recordSuccess(Endpoint endpoint, long latencyMillis) {
+        synchronized (endpoint) {
+            endpoint.latencyMillis = endpoint.latencyMillis == 0
+                    ? latencyMillis
+                    : settings.getLatencyWeight() * latencyMillis + (1 - settings.getLatencyWeight()) * endpoint.latencyMillis;
+            endpoint.consecutiveFailures = 0;
+            if (!endpoint.healthy) {
+                endpoint.healthy = true;
+                log.info("TSB endpoint {} is healthy again", endpoint.url);
+            }
+        }
+    }
+
+    private void recordFailure(Endpoint endpoint) {
+        synchronized (endpoint) {
+            endpoint.failures.incrementAndGet();
+            endpoint.consecutiveFailures++;
+            if (endpoint.healthy && endpoint.consecutiveFailures >= settings.getUnhealthyAfterFailures()) {
+                endpoint.healthy = false;
+                log.warn("TSB endpoint {} is unhealthy after {} failures in a row", endpoint.url, endpoint.consecutiveFailures);
+            }
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        for (Endpoint endpoint : getEndpoints()) {
+            Map<String, Object> endpointStatistics = new LinkedHashMap<>();
+            endpointStatistics.put("healthy", endpoint.healthy);
+            endpointStatistics.put("latencyMillis", Math.round(endpoint.latencyMillis));
+            endpointStatistics.put("inFlight", endpoint.inFlight.get());
+            endpointStatistics.put("failures", endpoint.failures.get());
+            statistics.put(endpoint.url, endpointStatistics);
+        }
+        synchronized (pins) {
+            statistics.put("pinnedRequests", pins.size());
+        }
+        statistics.put("pinEvictions", pinEvictions.get());
+        return statistics;
+    }
+
+    /**
+     * A TSB instance and its observed health and latency.
+     */
+    public static final class Endpoint {
+        private final String url;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong failures = new AtomicLong();
+        private volatile boolean healthy = true;
+        private volatile double latencyMillis;
+        private int consecutiveFailures;
+
+        private Endpoint(String url) {
+            this.url = url;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        // an endpoint without samples yet scores 0 and is tried first
+        private double score() {
+            return latencyMillis * (inFlight.get() + 1);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import com.securosys.fireblocks.configuration.TsbProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLContext;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Owns the pooled HTTP clients used for all calls to the TSB: the classic client for blocking calls, the async
+ * client for non-blocking calls and the probe client for the health probes of the endpoints. All are created lazily
+ * and rebuilt when the mTLS configuration of {@link MtlsClientFactory} changes, so plain and mTLS connections share
+ * the same pool settings and lifecycle.
+ * <p>
+ * Every TSB call asks for a client, so the current clients are kept in volatile fields together with the SSL
+ * context they were built for, and returned without locking as long as that context is unchanged. Only creating
+ * and replacing a client synchronizes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TsbHttpClientFactory {
+
+    private final TsbProperties tsbProperties;
+    private final MtlsClientFactory mtlsClientFactory;
+
+    private volatile ClassicClient classicClient;
+    private volatile AsyncClient asyncClient;
+    private volatile ClassicClient probeClient;
+
+    public CloseableHttpClient getClient() {
+        ClassicClient current = classicClient;
+        if (current != null && current.sslContext == mtlsClientFactory.getSslContext()) {
+            return current.client;
+        }
+        return replaceClient();
+    }
+
+    private synchronized CloseableHttpClient replaceClient() {
+        SSLContext sslContext = mtlsClientFactory.getSslContext();
+        ClassicClient previous = classicClient;
+        if (previous != null && previous.sslContext == sslContext) {
+            return previous.client; // replaced by another thread meanwhile
+        }
+        classicClient = createHttpClient(sslContext);
+        if (previous != null) {
+            log.info("TSB TLS configuration changed, replacing pooled HTTP client");
+            previous.client.close(CloseMode.GRACEFUL);
+        }
+        return classicClient.client;
+    }
+
+    /**
+     * Returns the started async client. Its I/O threads only multiplex the connections, a request in flight does
+     * not occupy a thread.
+     */
+    public CloseableHttpAsyncClient getAsyncClient() {
+        AsyncClient current = asyncClient;
+        if (current != null && current.sslContext == mtlsClientFactory.getSslContext()) {
+            return current.client;
+        }
+        return replaceAsyncClient();
+    }
+
+    private synchronized CloseableHttpAsyncClient replaceAsyncClient() {
+        SSLContext sslContext = mtlsClientFactory.getSslContext();
+        AsyncClient previous = asyncClient;
+        if (previous != null && previous.sslContext == sslContext) {
+            return previous.client; // replaced by another thread meanwhile
+        }
+        asyncClient = createAsyncClient(sslContext);
+        if (previous != null) {
+            log.info("TSB TLS configuration changed, replacing pooled async HTTP client");
+            previous.client.close(CloseMode.GRACEFUL);
+        }
+        return asyncClient.client;
+    }
+
+    /**
+     * Returns the client of the health probes. It has a small pool of its own, so probes do not wait for a
+     * connection behind the calls, and connects and waits for the answer at most
+     * {@code tsb.endpoints.probeTimeoutMillis}.
+     */
+    public CloseableHttpClient getProbeClient() {
+        ClassicClient current = probeClient;
+        if (current != null && current.sslContext == mtlsClientFactory.getSslContext()) {
+            return current.client;
+        }
+        return replaceProbeClient();
+    }
+
+    private synchronized CloseableHttpClient replaceProbeClient() {
+        SSLContext sslContext = mtlsClientFactory.getSslContext();
+        ClassicClient previous = probeClient;
+        if (previous != null && previous.sslContext == sslContext) {
+            return previous.client; // replaced by another thread meanwhile
+        }
+        probeClient = createProbeClient(sslContext);
+        if (previous != null) {
+            previous.client.close(CloseMode.GRACEFUL);
+        }
+        return probeClient.client;
+    }
+
+    /**
+     * Returns a snapshot of the connection pool usage, empty as long as no request has been sent.
+     */
+    public Map<String, Integer> getPoolStatistics() {
+        Map<String, Integer> statistics = new LinkedHashMap<>();
+        ClassicClient classic = classicClient;
+        if (classic != null) {
+            PoolStats totalStats = classic.connectionManager.getTotalStats();
+            statistics.put("leased", totalStats.getLeased());
+            statistics.put("available", totalStats.getAvailable());
+            statistics.put("pending", totalStats.getPending());
+            statistics.put("max", totalStats.getMax());
+            statistics.put("maxPerRoute", classic.connectionManager.getDefaultMaxPerRoute());
+        }
+        AsyncClient async = asyncClient;
+        if (async != null) {
+            PoolStats asyncStats = async.connectionManager.getTotalStats();
+            statistics.put("asyncLeased", asyncStats.getLeased());
+            statistics.put("asyncAvailable", asyncStats.getAvailable());
+            statistics.put("asyncPending", asyncStats.getPending());
+        }
+        return statistics;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (classicClient != null) {
+            classicClient.client.close(CloseMode.GRACEFUL);
+            classicClient = null;
+        }
+        if (asyncClient != null) {
+            asyncClient.client.close(CloseMode.GRACEFUL);
+            asyncClient = null;
+        }
+        if (probeClient != null) {
+            probeClient.client.close(CloseMode.GRACEFUL);
+            probeClient = null;
+        }
+    }
+
+    private ClassicClient createHttpClient(SSLContext sslContext) {
+        TsbProperties.ConnectionPool pool = tsbProperties.getConnectionPool();
+
+        PoolingHttpClientConnectionManagerBuilder connectionManagerBuilder = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.getMaxConnections())
+                .setMaxConnPerRoute(pool.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(connectionConfig(pool));
+        if (sslContext != null) {
+            connectionManagerBuilder.setTlsSocketStrategy(new DefaultClientTlsStrategy(sslContext));
+        }
+        PoolingHttpClientConnectionManager manager = connectionManagerBuilder.build();
+
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(requestConfig(pool))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(pool.getIdleEvictionSeconds()))
+                .build();
+
+        log.info("Pooled TSB HTTP client initialized (mTLS: {}, max connections: {}, per route: {})",
+                sslContext != null, pool.getMaxConnections(), pool.getMaxConnectionsPerRoute());
+        return new ClassicClient(client, manager, sslContext);
+    }
+
+    private AsyncClient createAsyncClient(SSLContext sslContext) {
+        TsbProperties.ConnectionPool pool = tsbProperties.getConnectionPool();
+
+        PoolingAsyncClientConnectionManagerBuilder connectionManagerBuilder = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.getMaxConnections())
+                .setMaxConnPerRoute(pool.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(connectionConfig(pool));
+        if (sslContext != null) {
+            connectionManagerBuilder.setTlsStrategy(new DefaultClientTlsStrategy(sslContext));
+        }
+        PoolingAsyncClientConnectionManager manager = connectionManagerBuilder.build();
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("tsb-async-io-");
+        threadFactory.setDaemon(true);
+
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(requestConfig(pool))
+                .setThreadFactory(threadFactory)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(pool.getIdleEvictionSeconds()))
+                .build();
+        client.start();
+
+        log.info("Pooled async TSB HTTP client initialized (mTLS: {}, max connections: {}, per route: {})",
+                sslContext != null, pool.getMaxConnections(), pool.getMaxConnectionsPerRoute());
+        return new AsyncClient(client, manager, sslContext);
+    }
+
+    // one connection per endpoint is enough, the probes of all endpoints are sent one after the other
+    private ClassicClient createProbeClient(SSLContext sslContext) {
+        Timeout timeout = Timeout.ofMilliseconds(tsbProperties.getEndpoints().getProbeTimeoutMillis());
+
+        PoolingHttpClientConnectionManagerBuilder connectionManagerBuilder = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(1)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout)
+                        .setSocketTimeout(timeout)
+                        .build());
+        if (sslContext != null) {
+            connectionManagerBuilder.setTlsSocketStrategy(new DefaultClientTlsStrategy(sslContext));
+        }
+        PoolingHttpClientConnectionManager manager = connectionManagerBuilder.build();
+
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(RequestConfig.copy(requestConfig(tsbProperties.getConnectionPool()))
+                        .setConnectionRequestTimeout(timeout)
+                        .setResponseTimeout(timeout)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(tsbProperties.getConnectionPool().getIdleEvictionSeconds()))
+                .build();
+        return new ClassicClient(client, manager, sslContext);
+    }
+
+    private static ConnectionConfig connectionConfig(TsbProperties.ConnectionPool pool) {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofSeconds(pool.getConnectTimeoutSeconds()))
+                .setSocketTimeout(Timeout.ofSeconds(pool.getSocketTimeoutSeconds()))
+                .build();
+    }
+
+    private static RequestConfig requestConfig(TsbProperties.ConnectionPool pool) {
+        return RequestConfig.custom()
+                .setConnectionKeepAlive(TimeValue.ofSeconds(pool.getKeepAliveSeconds()))
+                .build();
+    }
+
+    private static final class ClassicClient {
+        private final CloseableHttpClient client;
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final SSLContext sslContext;
+
+        ClassicClient(CloseableHttpClient client, PoolingHttpClientConnectionManager connectionManager, SSLContext sslContext) {
+            this.client = client;
+            this.connectionManager = connectionManager;
+            this.sslContext = sslContext;
+        }
+    }
+
+    private static final class AsyncClient {
+        private final CloseableHttpAsyncClient client;
+        private final PoolingAsyncClientConnectionManager connectionManager;
+        private final SSLContext sslContext;
+
+        AsyncClient(CloseableHttpAsyncClient client, PoolingAsyncClientConnectionManager connectionManager, SSLContext sslContext) {
+            this.client = client;
+            this.connectionManager = connectionManager;
+            this.sslContext = sslContext;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import com.securosys.fireblocks.business.dto.Constants;
+
+/**
+ * Classes of TSB calls. Each class has its own circuit breaker and bulkhead, and is authorized with its API key.
+ * Calls of idempotent classes may be sent again after a timeout or an HTTP 5xx answer (see {@link TsbRetryPolicy}).
+ */
+public enum TsbOperation {
+
+    // a repeated sign call creates a second signing request
+    SIGN(Constants.KEY_OPERATION_TOKEN_NAME, false),
+    REQUEST_STATUS(Constants.KEY_OPERATION_TOKEN_NAME, true),
+    // creating keys and certificates is not idempotent, reads are marked per call
+    KEY_MANAGEMENT(Constants.KEY_MANAGEMENT_TOKEN_NAME, false),
+    LICENSE(Constants.KEY_SERVICE_TOKEN_NAME, true);
+
+    private final String apiKeyName;
+    private final boolean idempotent;
+
+    TsbOperation(String apiKeyName, boolean idempotent) {
+        this.apiKeyName = apiKeyName;
+        this.idempotent = idempotent;
+    }
+
+    public String getApiKeyName() {
+        return apiKeyName;
+    }
+
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+}
@@ -0,0 +1,108 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import com.securosys.fireblocks.business.exceptions.BusinessException;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether a failed TSB call is sent again, and after which delay.
+ * <p>
+ * A call that could not connect never reached the TSB and is retried for every operation. Timeouts, broken
+ * connections and HTTP 502, 503 and 504 answers leave open whether the TSB processed the call, so they are only
+ * retried for idempotent calls (e.g. request status and key attributes); a sign call would create a second
+ * signing request. The delay grows exponentially with full jitter.
+ * <p>
+ * All retries are taken from a global budget, so a TSB outage does not multiply the load: the budget holds up to
+ * {@code budgetMaxRetries} retries and every call adds {@code budgetRatio} of a retry.
+ */
+@Component
+public class TsbRetryPolicy {
+
+    private final TsbProperties.Retry settings;
+
+    private double budget;
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+
+    public TsbRetryPolicy(TsbProperties tsbProperties) {
+        this.settings = tsbProperties.getRetry();
+        this.budget = settings.getBudgetMaxRetries();
+    }
+
+    /**
+     * Records a new call (not a retry), which refills the retry budget.
+     */
+    public synchronized void recordCall() {
+        budget = Math.min(settings.getBudgetMaxRetries(), budget + settings.getBudgetRatio());
+    }
+
+    /**
+     * Whether a call that got an answer with the given status is sent again after {@code attempt} attempts.
+     */
+    public boolean shouldRetry(int attempt, boolean idempotent, int statusCode) {
+        boolean transientStatus = statusCode == 502 || statusCode == 503 || statusCode == 504;
+        return transientStatus && idempotent && takeRetry(attempt);
+    }
+
+    /**
+     * Whether a call that failed without an answer is sent again after {@code attempt} attempts.
+     */
+    public boolean shouldRetry(int attempt, boolean idempotent, Throwable failure) {
+        Throwable cause = failure instanceof BusinessException ? failure.getCause() : failure;
+        if (cause == null || cause instanceof SSLException || !(cause instanceof IOException)) {
+            // refused by the circuit breaker, TLS setup or not a transport problem
+            return false;
+        }
+        boolean notSent = cause instanceof ConnectException
+                || cause instanceof ConnectTimeoutException
+                || cause instanceof UnknownHostException;
+        return (notSent || idempotent) && takeRetry(attempt);
+    }
+
+    /**
+     * Delay before the retry following {@code attempt} attempts, random between 0 and the exponential backoff.
+     */
+    public long backoffMillis(int attempt) {
+        double exponential = settings.getInitialBackoffMillis() * Math.pow(2, attempt - 1);
+        long ceiling = (long) Math.min(settings.getMaxBackoffMillis(), exponential);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("retries", retries.get());
+        statistics.put("budgetExhausted", budgetExhausted.get());
+        synchronized (this) {
+            statistics.put("budget", (int) budget);
+        }
+        return statistics;
+    }
+
+    private boolean takeRetry(int attempt) {
+        if (!settings.isEnabled() || attempt >= settings.getMaxAttempts()) {
+            return false;
+        }
+        synchronized (this) {
+            if (budget < 1) {
+                budgetExhausted.incrementAndGet();
+                return false;
+            }
+            budget--;
+        }
+        retries.incrementAndGet();
+        return true;
+    }
+}
@@ -17,13 +17,16 @@ import com.securosys.fireblocks.configuration.TsbProperties;
 import com.securosys.fireblocks.business.dto.Constants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.hc.client5.http.classic.methods.HttpDelete;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Method;
 import org.apache.hc.core5.http.ParseException;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
@@ -32,17 +35,34 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.nio.charset.StandardCharsets;
+import java.net.URI;
 import java.util.*;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Client of the TSB REST API. Every call is split into building the request and parsing the response, which are
+ * shared by the blocking methods and their {@code ...Async} variants. The async variants are sent with the async
+ * client of {@link TsbHttpClientFactory} and do not block a thread while the TSB answers; their futures complete
+ * exceptionally with the same {@link BusinessException} the blocking method throws.
+ * <p>
+ * With several TSB instances configured, every attempt of a call is routed by the {@link TsbEndpointPool}; a
+ * retry avoids the instance the previous attempt failed on.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TsbService {
 
     private final TsbProperties tsbProperties;
-    private final MtlsClientFactory mtlsClientFactory;
+    private final TsbHttpClientFactory tsbHttpClientFactory;
     private final AuthState authState;
+    private final TsbCircuitBreaker circuitBreaker;
+    private final TsbRetryPolicy retryPolicy;
+    private final TsbEndpointPool endpointPool;
 
     private static final String KEY_ALGORITHM = "EC";
     private static final String KEY_OID = "1.3.132.0.10";
@@ -52,6 +72,10 @@ public class TsbService {
     private static final int ERROR_INVALID_API_KEY = 631;
     private static final int ERROR_KEY_NOT_EXISTENT = 650;
 
+    private static final String DEFAULT_SIGN_KEY_NAME = "Fireblocks_SigningKey";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     public void rollOverApiKey(String name) {
         switch (name) {
             case Constants.KEY_MANAGEMENT_TOKEN_NAME -> authState.incrementKeyManagementIndex();
@@ -104,55 +128,362 @@ public class TsbService {
         };
     }
 
-    private boolean isMtlsEnabled() {
-        return tsbProperties.getTsbMTlsCertificate() != null &&
-                !tsbProperties.getTsbMTlsCertificate().isBlank() &&
-                tsbProperties.getTsbMTlsKey() != null &&
-                !tsbProperties.getTsbMTlsKey().isBlank();
-    }
-
+    /**
+     * Executes the request with the blocking client. When the TSB rejects the API key as invalid, the key is rolled
+     * over and the request is sent again with the next one, until the configured keys are used up.
+     */
     public Map<String, Object> doRequest(HttpUriRequest request, String apiKeyName) {
         Map<String, Object> responseMap = new HashMap<>();
 
         String accessToken = tsbProperties.getTsbAccessToken();
         if (accessToken != null && !accessToken.isBlank()) {
-            request.addHeader("Authorization", "Bearer " + accessToken);
+            request.setHeader("Authorization", "Bearer " + accessToken);
         }
 
-        String apiKey = getApiKeyByName(apiKeyName);
-        if (!apiKey.isBlank()) {
-            request.addHeader("X-API-KEY", getApiKeyByName(apiKeyName));
+        CloseableHttpClient client = tsbHttpClientFactory.getClient();
+
+        while (true) {
+            String apiKey = getApiKeyByName(apiKeyName);
+            if (!apiKey.isBlank()) {
+                request.setHeader("X-API-KEY", apiKey);
+            } else {
+                request.removeHeaders("X-API-KEY");
+            }
+
+            try (CloseableHttpResponse response = client.execute(request)) {
+                int statusCode = response.getCode();
+                String responseBody = EntityUtils.toString(response.getEntity());
+
+                if (!apiKey.isBlank() && statusCode == HttpURLConnection.HTTP_UNAUTHORIZED && isInvalidApiKey(responseBody)) {
+                    rollOverApiKey(apiKeyName, apiKey);
+                    continue; // Retry with new API key
+                }
+
+                responseMap.put("statusCode", statusCode);
+                responseMap.put("body", responseBody);
+                return responseMap;
+
+            } catch (ParseException | IOException e) {
+                throw new BusinessException("Error executing request", BusinessReason.ERROR_IN_SUBSYSTEM, e);
+            }
         }
+    }
 
-        CloseableHttpClient client = isMtlsEnabled()
-                ? mtlsClientFactory.getClient()
-                : HttpClients.createDefault();
+    /**
+     * Rolls the API key over unless another request already did after being rejected with the same key.
+     */
+    private void rollOverApiKey(String apiKeyName, String rejectedApiKey) {
+        synchronized (authState) {
+            if (rejectedApiKey.equals(getApiKeyByName(apiKeyName))) {
+                rollOverApiKey(apiKeyName);
+            }
+        }
+    }
 
-        try (CloseableHttpResponse response = client.execute(request)) {
-            int statusCode = response.getCode();
-            String responseBody = EntityUtils.toString(response.getEntity());
+    /**
+     * Sends a request with the blocking client, retrying transient failures as decided by the
+     * {@link TsbRetryPolicy}.
+     */
+    private TsbResponse execute(TsbRequest tsbRequest) {
+        retryPolicy.recordCall();
+        for (int attempt = 1; ; attempt++) {
+            final TsbResponse response;
+            try {
+                response = executeOnce(tsbRequest);
+            } catch (BusinessException e) {
+                if (!retryPolicy.shouldRetry(attempt, tsbRequest.idempotent, e)) {
+                    throw e;
+                }
+                log.info("TSB {} call failed ({}), retrying", tsbRequest.operation, describe(e));
+                backOff(attempt);
+                continue;
+            }
+            if (!retryPolicy.shouldRetry(attempt, tsbRequest.idempotent, response.statusCode)) {
+                return response;
+            }
+            log.info("TSB {} call answered with HTTP {}, retrying", tsbRequest.operation, response.statusCode);
+            backOff(attempt);
+        }
+    }
 
-            if (!apiKey.isBlank() && statusCode == 401) { // HTTP_UNAUTHORIZED
-                final ObjectMapper objectMapper = new ObjectMapper();
-                final JsonNode jsonObject = objectMapper.readTree(responseBody);
-                if (jsonObject != null
-                        && jsonObject.has("errorCode")
-                        && jsonObject.get("errorCode").asInt() == ERROR_INVALID_API_KEY) {
-                    rollOverApiKey(apiKeyName);
-                    return doRequest(request, apiKeyName); // Retry with new API key
+    /**
+     * Sends a request once to the endpoint selected by the {@link TsbEndpointPool}. A status poll answered with
+     * HTTP 404 is sent to the other endpoints, in case the request was accepted by one of them and its pin is lost.
+     */
+    private TsbResponse executeOnce(TsbRequest tsbRequest) {
+        final TsbEndpointPool.Endpoint endpoint = select(tsbRequest);
+        final TsbResponse response = executeAt(tsbRequest, endpoint);
+        if (response.statusCode != HttpURLConnection.HTTP_NOT_FOUND || tsbRequest.requestId == null) {
+            return response;
+        }
+        for (TsbEndpointPool.Endpoint other : endpointPool.others(endpoint)) {
+            try {
+                TsbResponse found = executeAt(tsbRequest, other);
+                if (found.statusCode != HttpURLConnection.HTTP_NOT_FOUND) {
+                    return pinnedIfFound(tsbRequest, found);
                 }
+            } catch (BusinessException e) {
+                log.debug("TSB request {} not looked up at {}: {}", tsbRequest.requestId, other.getUrl(), describe(e));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * The endpoint selected by the {@link TsbEndpointPool} for the request, unless the circuit of the operation is
+     * open there; then the best other endpoint whose circuit is not open, if any.
+     */
+    private TsbEndpointPool.Endpoint select(TsbRequest tsbRequest) {
+        final TsbEndpointPool.Endpoint endpoint = endpointPool.select(tsbRequest.requestId, tsbRequest.endpoint);
+        if (!circuitBreaker.isOpen(endpoint.getUrl(), tsbRequest.operation)) {
+            return endpoint;
+        }
+        return endpointPool.others(endpoint).stream()
+                .filter(other -> !circuitBreaker.isOpen(other.getUrl(), tsbRequest.operation))
+                .findFirst()
+                .orElse(endpoint);
+    }
+
+    /**
+     * Sends a request to the endpoint, see {@link #doRequest(HttpUriRequest, String)}. The call is refused right
+     * away while the {@link TsbCircuitBreaker} of its operation on the endpoint is open or its bulkhead is full.
+     */
+    private TsbResponse executeAt(TsbRequest tsbRequest, TsbEndpointPool.Endpoint endpoint) {
+        HttpUriRequestBase request = classicRequest(tsbRequest, endpoint);
+
+        final TsbCircuitBreaker.Permit permit = circuitBreaker.acquire(endpoint.getUrl(), tsbRequest.operation);
+        tsbRequest.endpoint = endpoint;
+        endpointPool.started(endpoint);
+        final long start = System.nanoTime();
+        final Map<String, Object> responseMap;
+        try {
+            responseMap = doRequest(request, tsbRequest.apiKeyName);
+        } catch (RuntimeException e) {
+            permit.failed();
+            endpointPool.failed(endpoint);
+            throw e;
+        }
+        final int statusCode = (int) responseMap.get("statusCode");
+        permit.completed(statusCode);
+        recordAnswer(endpoint, statusCode, start);
+        return new TsbResponse(statusCode, (String) responseMap.get("body"), endpoint);
+    }
+
+    private HttpUriRequestBase classicRequest(TsbRequest tsbRequest, TsbEndpointPool.Endpoint endpoint) {
+        HttpUriRequestBase request = new HttpUriRequestBase(tsbRequest.method.name(),
+                URI.create(endpoint.getUrl() + tsbRequest.path));
+        tsbRequest.headers.forEach(request::setHeader);
+        if (tsbRequest.body != null) {
+            request.setEntity(new StringEntity(tsbRequest.body, ContentType.APPLICATION_JSON));
+        }
+        return request;
+    }
+
+    private void recordAnswer(TsbEndpointPool.Endpoint endpoint, int statusCode, long startNanos) {
+        if (statusCode >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+            endpointPool.failed(endpoint);
+        } else {
+            endpointPool.succeeded(endpoint, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+
+    private TsbResponse pinnedIfFound(TsbRequest tsbRequest, TsbResponse found) {
+        if (found.statusCode == HttpURLConnection.HTTP_OK) {
+            endpointPool.pin(tsbRequest.requestId, found.endpoint);
+        }
+        return found;
+    }
+
+    /**
+     * Probes the health and latency of every TSB endpoint with a license request, if more than one is configured.
+     * Any answer below HTTP 500 counts as healthy, including HTTP 401: the probe is sent with the current API key,
+     * which it never rolls over. Probes use the probe client of {@link TsbHttpClientFactory}, which connects and
+     * waits for the answer at most {@code probeTimeoutMillis}, and bypass the circuit breakers and retries.
+     */
+    public void probeEndpoints() {
+        List<TsbEndpointPool.Endpoint> endpoints = endpointPool.getEndpoints();
+        if (endpoints.size() < 2) {
+            return;
+        }
+        CloseableHttpClient client = tsbHttpClientFactory.getProbeClient();
+        TsbRequest probe = licenseRequest();
+        for (TsbEndpointPool.Endpoint endpoint : endpoints) {
+            HttpUriRequestBase request = classicRequest(probe, endpoint);
+            String accessToken = tsbProperties.getTsbAccessToken();
+            if (accessToken != null && !accessToken.isBlank()) {
+                request.setHeader("Authorization", "Bearer " + accessToken);
             }
+            String apiKey = getApiKeyByName(probe.apiKeyName);
+            if (!apiKey.isBlank()) {
+                request.setHeader("X-API-KEY", apiKey);
+            }
+            final long start = System.nanoTime();
+            try {
+                int statusCode = client.execute(request, response -> {
+                    EntityUtils.consume(response.getEntity());
+                    return response.getCode();
+                });
+                endpointPool.probed(endpoint, statusCode < HttpURLConnection.HTTP_INTERNAL_ERROR,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (IOException | RuntimeException e) {
+                log.debug("Probe of TSB endpoint {} failed: {}", endpoint.getUrl(), e.toString());
+                endpointPool.probed(endpoint, false, 0);
+            }
+        }
+    }
 
-            responseMap.put("statusCode", statusCode);
-            responseMap.put("body", responseBody);
-            return responseMap;
+    private void backOff(int attempt) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(retryPolicy.backoffMillis(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore the interrupted status
+            throw new BusinessException("Interrupted while waiting to retry the TSB call", BusinessReason.ERROR_IN_SUBSYSTEM);
+        }
+    }
 
-        } catch (ParseException | IOException e) {
-            throw new BusinessException("Error executing request", BusinessReason.ERROR_IN_SUBSYSTEM);
+    private static String describe(Throwable failure) {
+        return failure.getCause() != null ? failure.getCause().toString() : failure.getMessage();
+    }
+
+    /**
+     * Sends a request with the async client, retrying transient failures as decided by the {@link TsbRetryPolicy}.
+     * The delay before a retry does not occupy a thread.
+     */
+    private CompletableFuture<TsbResponse> executeAsync(TsbRequest tsbRequest) {
+        retryPolicy.recordCall();
+        return executeAsync(tsbRequest, 1);
+    }
+
+    private CompletableFuture<TsbResponse> executeAsync(TsbRequest tsbRequest, int attempt) {
+        return executeOnceAsync(tsbRequest).handle((response, failure) -> {
+            Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+            boolean retry = cause != null
+                    ? retryPolicy.shouldRetry(attempt, tsbRequest.idempotent, cause)
+                    : retryPolicy.shouldRetry(attempt, tsbRequest.idempotent, response.statusCode);
+            if (!retry) {
+                return cause != null
+                        ? CompletableFuture.<TsbResponse>failedFuture(cause)
+                        : CompletableFuture.completedFuture(response);
+            }
+            log.info("TSB {} call failed ({}), retrying", tsbRequest.operation,
+                    cause != null ? describe(cause) : "HTTP " + response.statusCode);
+            Executor delayed = CompletableFuture.delayedExecutor(retryPolicy.backoffMillis(attempt), TimeUnit.MILLISECONDS);
+            return CompletableFuture.runAsync(() -> { }, delayed)
+                    .thenCompose(ignored -> executeAsync(tsbRequest, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Async variant of {@link #executeOnce(TsbRequest)}.
+     */
+    private CompletableFuture<TsbResponse> executeOnceAsync(TsbRequest tsbRequest) {
+        final TsbEndpointPool.Endpoint endpoint = select(tsbRequest);
+        return executeAtAsync(tsbRequest, endpoint).thenCompose(response ->
+                response.statusCode == HttpURLConnection.HTTP_NOT_FOUND && tsbRequest.requestId != null
+                        ? lookUpAsync(tsbRequest, endpointPool.others(endpoint).iterator(), response)
+                        : CompletableFuture.completedFuture(response));
+    }
+
+    private CompletableFuture<TsbResponse> lookUpAsync(TsbRequest tsbRequest, Iterator<TsbEndpointPool.Endpoint> others,
+                                                       TsbResponse notFound) {
+        if (!others.hasNext()) {
+            return CompletableFuture.completedFuture(notFound);
         }
+        final TsbEndpointPool.Endpoint other = others.next();
+        return executeAtAsync(tsbRequest, other).handle((found, failure) -> {
+            if (failure == null && found.statusCode != HttpURLConnection.HTTP_NOT_FOUND) {
+                return CompletableFuture.completedFuture(pinnedIfFound(tsbRequest, found));
+            }
+            return lookUpAsync(tsbRequest, others, notFound);
+        }).thenCompose(Function.identity());
+    }
 
+    /**
+     * Sends a request to the endpoint with the async client. When the TSB rejects the API key as invalid, the key
+     * is rolled over and the request is sent again with the next one, as {@link #doRequest(HttpUriRequest, String)}
+     * does. The request is sent once the {@link TsbCircuitBreaker} admits it, without blocking the caller; calls it
+     * refuses complete exceptionally without being sent.
+     */
+    private CompletableFuture<TsbResponse> executeAtAsync(TsbRequest tsbRequest, TsbEndpointPool.Endpoint endpoint) {
+        final String apiKey = getApiKeyByName(tsbRequest.apiKeyName);
+
+        SimpleRequestBuilder builder = SimpleRequestBuilder.create(tsbRequest.method.name())
+                .setUri(endpoint.getUrl() + tsbRequest.path);
+        tsbRequest.headers.forEach(builder::setHeader);
+        if (tsbRequest.body != null) {
+            builder.setBody(tsbRequest.body, ContentType.APPLICATION_JSON);
+        }
+        String accessToken = tsbProperties.getTsbAccessToken();
+        if (accessToken != null && !accessToken.isBlank()) {
+            builder.setHeader("Authorization", "Bearer " + accessToken);
+        }
+        if (!apiKey.isBlank()) {
+            builder.setHeader("X-API-KEY", apiKey);
+        }
+        SimpleHttpRequest request = builder.build();
+
+        return circuitBreaker.acquireAsync(endpoint.getUrl(), tsbRequest.operation)
+                .thenCompose(permit -> send(request, permit, tsbRequest, endpoint))
+                .thenCompose(response -> {
+                    int statusCode = response.getCode();
+                    String responseBody = Objects.requireNonNullElse(response.getBodyText(), "");
+
+                    if (!apiKey.isBlank() && statusCode == HttpURLConnection.HTTP_UNAUTHORIZED && isInvalidApiKey(responseBody)) {
+                        rollOverApiKey(tsbRequest.apiKeyName, apiKey);
+                        return executeAtAsync(tsbRequest, endpoint); // Retry with new API key
+                    }
+                    return CompletableFuture.completedFuture(new TsbResponse(statusCode, responseBody, endpoint));
+                });
+    }
+
+    private CompletableFuture<SimpleHttpResponse> send(SimpleHttpRequest request, TsbCircuitBreaker.Permit permit,
+                                                       TsbRequest tsbRequest, TsbEndpointPool.Endpoint endpoint) {
+        tsbRequest.endpoint = endpoint;
+        endpointPool.started(endpoint);
+        final long start = System.nanoTime();
+
+        CompletableFuture<SimpleHttpResponse> future = new CompletableFuture<>();
+        try {
+            tsbHttpClientFactory.getAsyncClient().execute(request, new FutureCallback<>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    permit.completed(response.getCode());
+                    recordAnswer(endpoint, response.getCode(), start);
+                    future.complete(response);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    permit.failed();
+                    endpointPool.failed(endpoint);
+                    future.completeExceptionally(new BusinessException("Error executing request", BusinessReason.ERROR_IN_SUBSYSTEM, e));
+                }
+
+                @Override
+                public void cancelled() {
+                    permit.failed();
+                    endpointPool.failed(endpoint);
+                    future.cancel(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.failed();
+            endpointPool.failed(endpoint);
+            future.completeExceptionally(new BusinessException("Error executing request", BusinessReason.ERROR_IN_SUBSYSTEM, e));
+        }
+        return future;
     }
 
+    private static boolean isInvalidApiKey(String responseBody) {
+        try {
+            JsonNode jsonObject = OBJECT_MAPPER.readTree(responseBody);
+            return jsonObject != null
+                    && jsonObject.has("errorCode")
+                    && jsonObject.get("errorCode").asInt() == ERROR_INVALID_API_KEY;
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
 
     /**
      * Returns the status of a request with the specified request ID from the TSB service.
@@ -165,28 +496,33 @@ public class TsbService {
      * @return a {@link RequestStatusResponseDto} object containing the status of the request
      */
     public RequestStatusResponseDto getRequest(String requestId) {
+        return parseRequestStatus(execute(requestStatusRequest(requestId)));
+    }
 
-        final HttpGet request = new HttpGet(tsbProperties.getTsbRestApi() + "/v1/request/" + requestId);
-        request.addHeader("Content-Type", "application/json");
+    public CompletableFuture<RequestStatusResponseDto> getRequestAsync(String requestId) {
+        return executeAsync(requestStatusRequest(requestId)).thenApply(this::parseRequestStatus);
+    }
 
-        try {
-            final Map<String, Object> responseMap = doRequest(request, Constants.KEY_OPERATION_TOKEN_NAME);
+    private TsbRequest requestStatusRequest(String requestId) {
+        return TsbRequest.get(TsbOperation.REQUEST_STATUS, "/v1/request/" + requestId).pinnedTo(requestId);
+    }
 
-            final int statusCode = (int) responseMap.get("statusCode");
-            final String responseBody = (String) responseMap.get("body");
+    private RequestStatusResponseDto parseRequestStatus(TsbResponse response) {
+        final int statusCode = response.statusCode;
+        final String responseBody = response.body;
 
-            if (log.isDebugEnabled()) {
-                log.debug("Response Securosys TSB get request: {}", responseBody);
-            }
+        if (log.isDebugEnabled()) {
+            log.debug("Response Securosys TSB get request: {}", responseBody);
+        }
 
-            if (statusCode == HttpURLConnection.HTTP_UNAUTHORIZED) {
-                throw new BusinessException("Unauthorized to TSB for get status request", BusinessReason.ERROR_OPERATION_FORBIDDEN);
-            } else if (statusCode != HttpURLConnection.HTTP_OK) {
-                throw new BusinessException("Failed to get request: " + responseBody, BusinessReason.ERROR_GENERAL);
-            }
+        if (statusCode == HttpURLConnection.HTTP_UNAUTHORIZED) {
+            throw new BusinessException("Unauthorized to TSB for get status request", BusinessReason.ERROR_OPERATION_FORBIDDEN);
+        } else if (statusCode != HttpURLConnection.HTTP_OK) {
+            throw new BusinessException("Failed to get request: " + responseBody, BusinessReason.ERROR_GENERAL);
+        }
 
-            final ObjectMapper objectMapperResponse = new ObjectMapper();
-            final JsonNode responseData = objectMapperResponse.readTree(responseBody);
+        try {
+            final JsonNode responseData = OBJECT_MAPPER.readTree(responseBody);
 
             RequestStatusResponseDto requestBody = new RequestStatusResponseDto();
             requestBody.setId(responseData.get("id").asText());
@@ -200,7 +536,6 @@ public class TsbService {
         } catch (IOException e) {
             throw new BusinessException("Failed to get request status", BusinessReason.ERROR_GENERAL);
         }
-
     }
 
     /**
@@ -216,8 +551,15 @@ public class TsbService {
      * @param curveOid  the OID of the key
      */
     public void createOrUpdateKey(String label, String password, String keyType, String curveOid, int keySize) {
-        final ObjectMapper objectMapper = new ObjectMapper();
-        final ObjectNode jsonBody = objectMapper.createObjectNode();
+        parseCreateKey(execute(createKeyRequest(label, password, keyType, curveOid, keySize)));
+    }
+
+    public CompletableFuture<Void> createOrUpdateKeyAsync(String label, String password, String keyType, String curveOid, int keySize) {
+        return executeAsync(createKeyRequest(label, password, keyType, curveOid, keySize)).thenAccept(this::parseCreateKey);
+    }
+
+    private TsbRequest createKeyRequest(String label, String password, String keyType, String curveOid, int keySize) {
+        final ObjectNode jsonBody = OBJECT_MAPPER.createObjectNode();
         jsonBody.put("label", label);
         jsonBody.put("algorithm", keyType);
 
@@ -235,7 +577,7 @@ public class TsbService {
 
         final Map<String, Boolean> attributes = prepareAttributes();
 
-        final ObjectNode attributesNode = objectMapper.convertValue(attributes, ObjectNode.class);
+        final ObjectNode attributesNode = OBJECT_MAPPER.convertValue(attributes, ObjectNode.class);
         jsonBody.set("attributes", attributesNode);
 
 //        Policy basicPolicy;
@@ -255,15 +597,17 @@ public class TsbService {
             log.debug("Request Securosys TSB createKey: {}", jsonBody);
         }
         try {
-            final String jsonStr = objectMapper.writeValueAsString(jsonBody);
-            final HttpPost request = new HttpPost(tsbProperties.getTsbRestApi() + "/v1/key");
-            request.addHeader("Content-Type", "application/json");
-            request.setEntity(new StringEntity(jsonStr));
+            return TsbRequest.post(TsbOperation.KEY_MANAGEMENT, "/v1/key", OBJECT_MAPPER.writeValueAsString(jsonBody));
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Failed to create key.", BusinessReason.ERROR_GENERAL);
+        }
+    }
 
-            final Map<String, Object> responseMap = doRequest(request, Constants.KEY_MANAGEMENT_TOKEN_NAME);
-            final int statusCode = (int) responseMap.get("statusCode");
-            final String responseBody = (String) responseMap.get("body");
-            JsonNode responseData = objectMapper.readTree(responseBody);
+    private void parseCreateKey(TsbResponse response) {
+        final int statusCode = response.statusCode;
+        final String responseBody = response.body;
+        try {
+            JsonNode responseData = OBJECT_MAPPER.readTree(responseBody);
 
             if (log.isDebugEnabled()) {
                 log.debug("Response Securosys TSB createKey: {}", responseBody);
@@ -282,7 +626,6 @@ public class TsbService {
         }catch (IOException e){
             throw new BusinessException("Failed to create key.", BusinessReason.ERROR_GENERAL);
         }
-
     }
 
     private static Map<String, Boolean> prepareAttributes() {
@@ -316,17 +659,28 @@ public class TsbService {
      * For more information, @see <a href="https://docs.securosys.com/tsb/overview">
      */
     public String sign(String label, String password, String payload, String payloadType, String signatureType, String signatureAlgorithm, String metaData, String metaDataSignature) {
-        final ObjectMapper objectMapper = new ObjectMapper();
+        if (label.isBlank()) {
+            createOrUpdateKey(DEFAULT_SIGN_KEY_NAME, null, KEY_ALGORITHM, KEY_OID, 0);
+        }
+        TsbResponse response = execute(signRequest(label, password, payload, payloadType, signatureType, signatureAlgorithm, metaData, metaDataSignature));
+        return pin(parseSignRequestId(response), response);
+    }
+
+    public CompletableFuture<String> signAsync(String label, String password, String payload, String payloadType, String signatureType, String signatureAlgorithm, String metaData, String metaDataSignature) {
+        CompletableFuture<Void> signKey = label.isBlank()
+                ? createOrUpdateKeyAsync(DEFAULT_SIGN_KEY_NAME, null, KEY_ALGORITHM, KEY_OID, 0)
+                : CompletableFuture.completedFuture(null);
+        return signKey
+                .thenCompose(created -> executeAsync(signRequest(label, password, payload, payloadType, signatureType, signatureAlgorithm, metaData, metaDataSignature)))
+                .thenApply(response -> pin(parseSignRequestId(response), response));
+    }
+
+    private TsbRequest signRequest(String label, String password, String payload, String payloadType, String signatureType, String signatureAlgorithm, String metaData, String metaDataSignature) {
         final Map<String, Object> signRequest = new HashMap<>();
 
         signRequest.put("payload", payload);
         signRequest.put("payloadType", payloadType);
-        if (label.isBlank()){
-            createOrUpdateKey("Fireblocks_SigningKey", null, KEY_ALGORITHM, KEY_OID, 0);
-            signRequest.put("signKeyName", "Fireblocks_SigningKey");
-        }else {
-            signRequest.put("signKeyName", label);
-        }
+        signRequest.put("signKeyName", label.isBlank() ? DEFAULT_SIGN_KEY_NAME : label);
 
         if (password != null) {
             signRequest.put("keyPassword", password);
@@ -350,16 +704,17 @@ public class TsbService {
         }
 
         try {
-            final String jsonStr = objectMapper.writeValueAsString(requestBody);
-            final HttpPost request = new HttpPost(tsbProperties.getTsbRestApi() + "/v1/sign");
-            request.setHeader("Content-Type", "application/json");
-            request.setEntity(new StringEntity(jsonStr));
-
-            final Map<String, Object> responseMap = doRequest(request, Constants.KEY_OPERATION_TOKEN_NAME);
-            final int statusCode = (int) responseMap.get("statusCode");
-            final String responseBody = (String) responseMap.get("body");
+            return TsbRequest.post(TsbOperation.SIGN, "/v1/sign", OBJECT_MAPPER.writeValueAsString(requestBody));
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Failed to sign in TSB: " + e, BusinessReason.ERROR_GENERAL);
+        }
+    }
 
-            JsonNode responseData = objectMapper.readTree(responseBody);
+    private String parseSignRequestId(TsbResponse response) {
+        final int statusCode = response.statusCode;
+        final String responseBody = response.body;
+        try {
+            JsonNode responseData = OBJECT_MAPPER.readTree(responseBody);
 
             if (log.isDebugEnabled()) {
                 log.debug("Response Securosys TSB sign: {}", responseBody);
@@ -379,13 +734,24 @@ public class TsbService {
         } catch (JsonProcessingException e) {
             throw new BusinessException("Failed to sign in TSB: " + e, BusinessReason.ERROR_GENERAL);
         }
+    }
 
-
+    // status polls of a new request go to the instance that accepted it
+    private String pin(String requestId, TsbResponse response) {
+        endpointPool.pin(requestId, response.endpoint);
+        return requestId;
     }
 
     public KeyAttributesDto getPublicKey(String label, String password){
-        final ObjectMapper objectMapper = new ObjectMapper();
-        final ObjectNode jsonBody = objectMapper.createObjectNode();
+        return parseKeyAttributes(execute(keyAttributesRequest(label, password)));
+    }
+
+    public CompletableFuture<KeyAttributesDto> getPublicKeyAsync(String label, String password) {
+        return executeAsync(keyAttributesRequest(label, password)).thenApply(this::parseKeyAttributes);
+    }
+
+    private TsbRequest keyAttributesRequest(String label, String password) {
+        final ObjectNode jsonBody = OBJECT_MAPPER.createObjectNode();
 
         jsonBody.put("label", label);
         if (password != null && !password.isEmpty()){
@@ -397,15 +763,17 @@ public class TsbService {
         }
 
         try {
-            final String jsonStr = objectMapper.writeValueAsString(jsonBody);
-            final HttpPost request = new HttpPost(tsbProperties.getTsbRestApi() + "/v1/key/attributes");
-            request.setHeader("Content-Type", "application/json");
-            request.setEntity(new StringEntity(jsonStr));
-
-            final Map<String, Object> responseMap = doRequest(request, Constants.KEY_MANAGEMENT_TOKEN_NAME);
-            final int statusCode = (int) responseMap.get("statusCode");
-            final String responseBody = (String) responseMap.get("body");
+            return TsbRequest.post(TsbOperation.KEY_MANAGEMENT, "/v1/key/attributes", OBJECT_MAPPER.writeValueAsString(jsonBody))
+                    .idempotent();
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Failed to get key attributes.", BusinessReason.ERROR_GENERAL);
+        }
+    }
 
+    private KeyAttributesDto parseKeyAttributes(TsbResponse response) {
+        final int statusCode = response.statusCode;
+        final String responseBody = response.body;
+        try {
             if (log.isDebugEnabled()) {
                 log.debug("Response Securosys TSB get key attributes: {}", responseBody);
             }
@@ -416,7 +784,7 @@ public class TsbService {
                 throw new BusinessException("Failed to get key attributes: " + statusCode + ": " + responseBody, BusinessReason.ERROR_GENERAL);
             }
 
-            JsonNode responseData = objectMapper.readTree(responseBody);
+            JsonNode responseData = OBJECT_MAPPER.readTree(responseBody);
 
             if (responseData.has("errorCode")
                     && responseData.get("errorCode").asInt() == ERROR_KEY_NOT_EXISTENT) {
@@ -458,28 +826,33 @@ public class TsbService {
      * @return a {@link LicenseResponseDto} object containing the status of the request
      */
     public LicenseResponseDto getLicense() {
+        return parseLicense(execute(licenseRequest()));
+    }
 
-        final HttpGet request = new HttpGet(tsbProperties.getTsbRestApi() + "/v1/licenseInfo");
-        request.addHeader("Content-Type", "application/json");
+    public CompletableFuture<LicenseResponseDto> getLicenseAsync() {
+        return executeAsync(licenseRequest()).thenApply(this::parseLicense);
+    }
 
-        try {
-            final Map<String, Object> responseMap = doRequest(request, Constants.KEY_SERVICE_TOKEN_NAME);
+    private TsbRequest licenseRequest() {
+        return TsbRequest.get(TsbOperation.LICENSE, "/v1/licenseInfo");
+    }
 
-            final int statusCode = (int) responseMap.get("statusCode");
-            final String responseBody = (String) responseMap.get("body");
+    private LicenseResponseDto parseLicense(TsbResponse response) {
+        final int statusCode = response.statusCode;
+        final String responseBody = response.body;
 
-            if (log.isDebugEnabled()) {
-                log.debug("Response Securosys TSB get license: {}", responseBody);
-            }
+        if (log.isDebugEnabled()) {
+            log.debug("Response Securosys TSB get license: {}", responseBody);
+        }
 
-            if (statusCode == HttpURLConnection.HTTP_UNAUTHORIZED) {
-                throw new BusinessException("Unauthorized to TSB for license request", BusinessReason.ERROR_OPERATION_FORBIDDEN);
-            } else if (statusCode != HttpURLConnection.HTTP_OK) {
-                throw new BusinessException("Failed to get license: " + responseBody, BusinessReason.ERROR_GENERAL);
-            }
+        if (statusCode == HttpURLConnection.HTTP_UNAUTHORIZED) {
+            throw new BusinessException("Unauthorized to TSB for license request", BusinessReason.ERROR_OPERATION_FORBIDDEN);
+        } else if (statusCode != HttpURLConnection.HTTP_OK) {
+            throw new BusinessException("Failed to get license: " + responseBody, BusinessReason.ERROR_GENERAL);
+        }
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            LicenseResponseDto licenseResponseDto = objectMapper.readValue(responseBody, LicenseResponseDto.class);
+        try {
+            LicenseResponseDto licenseResponseDto = OBJECT_MAPPER.readValue(responseBody, LicenseResponseDto.class);
 
             if (log.isDebugEnabled()) {
                 log.debug("Status code get license is: {}", statusCode);
@@ -501,7 +874,14 @@ public class TsbService {
      * For more information, @see <a href="https://docs.securosys.com/tsb/overview">
      */
     public void syncSelfSign(String signKeyName, String password, String signatureAlgorithm) {
-        final ObjectMapper objectMapper = new ObjectMapper();
+        parseSelfSign(execute(selfSignRequest(signKeyName, password, signatureAlgorithm)));
+    }
+
+    public CompletableFuture<Void> syncSelfSignAsync(String signKeyName, String password, String signatureAlgorithm) {
+        return executeAsync(selfSignRequest(signKeyName, password, signatureAlgorithm)).thenAccept(this::parseSelfSign);
+    }
+
+    private TsbRequest selfSignRequest(String signKeyName, String password, String signatureAlgorithm) {
         final Map<String, Object> requestBody = new HashMap<>();
 
         requestBody.put("signKeyName", signKeyName);
@@ -525,16 +905,17 @@ public class TsbService {
         }
 
         try {
-            final String jsonStr = objectMapper.writeValueAsString(requestBody);
-            final HttpPost request = new HttpPost(tsbProperties.getTsbRestApi() + "/v1/certificate/synchronous/selfsign");
-            request.setHeader("Content-Type", "application/json");
-            request.setEntity(new StringEntity(jsonStr));
-
-            final Map<String, Object> responseMap = doRequest(request, Constants.KEY_MANAGEMENT_TOKEN_NAME);
-            final int statusCode = (int) responseMap.get("statusCode");
-            final String responseBody = (String) responseMap.get("body");
+            return TsbRequest.post(TsbOperation.KEY_MANAGEMENT, "/v1/certificate/synchronous/selfsign", OBJECT_MAPPER.writeValueAsString(requestBody));
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Failed to self-sign in TSB: " + e.getMessage(), BusinessReason.ERROR_GENERAL);
+        }
+    }
 
-            JsonNode responseData = objectMapper.readTree(responseBody);
+    private void parseSelfSign(TsbResponse response) {
+        final int statusCode = response.statusCode;
+        final String responseBody = response.body;
+        try {
+            JsonNode responseData = OBJECT_MAPPER.readTree(responseBody);
 
             if (log.isDebugEnabled()) {
                 log.debug("Response Securosys TSB self-sign: {}", responseBody);
@@ -556,8 +937,16 @@ public class TsbService {
     }
 
     public String generateCertificateRequest(String signKeyName, String password, String signatureAlgorithm) {
-        final ObjectMapper objectMapper = new ObjectMapper();
+        TsbResponse response = execute(certificateRequest(signKeyName, password, signatureAlgorithm));
+        return pin(parseCertificateRequestId(response), response);
+    }
+
+    public CompletableFuture<String> generateCertificateRequestAsync(String signKeyName, String password, String signatureAlgorithm) {
+        return executeAsync(certificateRequest(signKeyName, password, signatureAlgorithm))
+                .thenApply(response -> pin(parseCertificateRequestId(response), response));
+    }
 
+    private TsbRequest certificateRequest(String signKeyName, String password, String signatureAlgorithm) {
         // csrSignRequest
         final Map<String, Object> csrSignRequest = new HashMap<>();
         csrSignRequest.put("signKeyName", signKeyName);
@@ -584,16 +973,17 @@ public class TsbService {
         }
 
         try {
-            final String jsonStr = objectMapper.writeValueAsString(requestBody);
-            final HttpPost request = new HttpPost(tsbProperties.getTsbRestApi() + "/v1/certificate/request");
-            request.setHeader("Content-Type", "application/json");
-            request.setEntity(new StringEntity(jsonStr, StandardCharsets.UTF_8));
-
-            final Map<String, Object> responseMap = doRequest(request, Constants.KEY_MANAGEMENT_TOKEN_NAME);
-            final int statusCode = (int) responseMap.get("statusCode");
-            final String responseBody = (String) responseMap.get("body");
+            return TsbRequest.post(TsbOperation.KEY_MANAGEMENT, "/v1/certificate/request", OBJECT_MAPPER.writeValueAsString(requestBody));
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Failed to request certificate in TSB: " + e.getMessage(), BusinessReason.ERROR_GENERAL);
+        }
+    }
 
-            JsonNode responseData = objectMapper.readTree(responseBody);
+    private String parseCertificateRequestId(TsbResponse response) {
+        final int statusCode = response.statusCode;
+        final String responseBody = response.body;
+        try {
+            JsonNode responseData = OBJECT_MAPPER.readTree(responseBody);
 
             if (log.isDebugEnabled()) {
                 log.debug("Response Securosys TSB certificate request: {}", responseBody);
@@ -617,7 +1007,14 @@ public class TsbService {
     }
 
     public String generateSynchronousCertificateRequest(String signKeyName, String password, String signatureAlgorithm) {
-        final ObjectMapper objectMapper = new ObjectMapper();
+        return parseCertificateSigningRequest(execute(synchronousCertificateRequest(signKeyName, password, signatureAlgorithm)));
+    }
+
+    public CompletableFuture<String> generateSynchronousCertificateRequestAsync(String signKeyName, String password, String signatureAlgorithm) {
+        return executeAsync(synchronousCertificateRequest(signKeyName, password, signatureAlgorithm)).thenApply(this::parseCertificateSigningRequest);
+    }
+
+    private TsbRequest synchronousCertificateRequest(String signKeyName, String password, String signatureAlgorithm) {
         final Map<String, Object> requestBody = new HashMap<>();
 
         requestBody.put("signKeyName", signKeyName);
@@ -641,16 +1038,17 @@ public class TsbService {
         }
 
         try {
-            final String jsonStr = objectMapper.writeValueAsString(requestBody);
-            final HttpPost request = new HttpPost(tsbProperties.getTsbRestApi() + "/v1/certificate/synchronous/request");
-            request.setHeader("Content-Type", "application/json");
-            request.setEntity(new StringEntity(jsonStr, StandardCharsets.UTF_8));
-
-            final Map<String, Object> responseMap = doRequest(request, Constants.KEY_MANAGEMENT_TOKEN_NAME);
-            final int statusCode = (int) responseMap.get("statusCode");
-            final String responseBody = (String) responseMap.get("body");
+            return TsbRequest.post(TsbOperation.KEY_MANAGEMENT, "/v1/certificate/synchronous/request", OBJECT_MAPPER.writeValueAsString(requestBody));
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Failed to request synchronous certificate in TSB: " + e.getMessage(), BusinessReason.ERROR_GENERAL);
+        }
+    }
 
-            JsonNode responseData = objectMapper.readTree(responseBody);
+    private String parseCertificateSigningRequest(TsbResponse response) {
+        final int statusCode = response.statusCode;
+        final String responseBody = response.body;
+        try {
+            JsonNode responseData = OBJECT_MAPPER.readTree(responseBody);
 
             if (log.isDebugEnabled()) {
                 log.debug("Response Securosys TSB synchronous certificate request: {}", responseBody);
@@ -674,7 +1072,14 @@ public class TsbService {
 
 
     public String signCertificate(String signKeyName, String password, String signatureAlgorithm, String certificateSigningRequest) {
-        final ObjectMapper objectMapper = new ObjectMapper();
+        return parseCertificate(execute(signCertificateRequest(signKeyName, password, signatureAlgorithm, certificateSigningRequest)));
+    }
+
+    public CompletableFuture<String> signCertificateAsync(String signKeyName, String password, String signatureAlgorithm, String certificateSigningRequest) {
+        return executeAsync(signCertificateRequest(signKeyName, password, signatureAlgorithm, certificateSigningRequest)).thenApply(this::parseCertificate);
+    }
+
+    private TsbRequest signCertificateRequest(String signKeyName, String password, String signatureAlgorithm, String certificateSigningRequest) {
         final Map<String, Object> requestBody = new HashMap<>();
 
         requestBody.put("signKeyName", signKeyName);
@@ -701,16 +1106,17 @@ public class TsbService {
         }
 
         try {
-            final String jsonStr = objectMapper.writeValueAsString(requestBody);
-            final HttpPost request = new HttpPost(tsbProperties.getTsbRestApi() + "/v1/certificate/synchronous/sign");
-            request.setHeader("Content-Type", "application/json");
-            request.setEntity(new StringEntity(jsonStr, StandardCharsets.UTF_8));
-
-            final Map<String, Object> responseMap = doRequest(request, Constants.KEY_MANAGEMENT_TOKEN_NAME);
-            final int statusCode = (int) responseMap.get("statusCode");
-            final String responseBody = (String) responseMap.get("body");
+            return TsbRequest.post(TsbOperation.KEY_MANAGEMENT, "/v1/certificate/synchronous/sign", OBJECT_MAPPER.writeValueAsString(requestBody));
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Failed to sign certificate in TSB: " + e.getMessage(), BusinessReason.ERROR_GENERAL);
+        }
+    }
 
-            JsonNode responseData = objectMapper.readTree(responseBody);
+    private String parseCertificate(TsbResponse response) {
+        final int statusCode = response.statusCode;
+        final String responseBody = response.body;
+        try {
+            JsonNode responseData = OBJECT_MAPPER.readTree(responseBody);
 
             if (log.isDebugEnabled()) {
                 log.debug("Response Securosys TSB certificate sign: {}", responseBody);
@@ -742,19 +1148,23 @@ public class TsbService {
      *
      */
     public void deleteKey(String keyName) {
+        parseDeleteKey(execute(deleteKeyRequest(keyName)));
+    }
 
-        final ObjectMapper objectMapper = new ObjectMapper();
-
-        final HttpDelete request = new HttpDelete(tsbProperties.getTsbRestApi() + "/v1/key/" + keyName);
-        request.addHeader("Accept", "*/*");
+    public CompletableFuture<Void> deleteKeyAsync(String keyName) {
+        return executeAsync(deleteKeyRequest(keyName)).thenAccept(this::parseDeleteKey);
+    }
 
-        final Map<String, Object> responseMap = doRequest(request, Constants.KEY_MANAGEMENT_TOKEN_NAME);
+    private TsbRequest deleteKeyRequest(String keyName) {
+        return TsbRequest.delete(TsbOperation.KEY_MANAGEMENT, "/v1/key/" + keyName);
+    }
 
-        final int statusCode = (int) responseMap.get("statusCode");
-        final String responseBody = (String) responseMap.get("body");
+    private void parseDeleteKey(TsbResponse response) {
+        final int statusCode = response.statusCode;
+        final String responseBody = response.body;
 
         try {
-            JsonNode responseData = objectMapper.readTree(responseBody);
+            JsonNode responseData = OBJECT_MAPPER.readTree(responseBody);
 
             if (log.isDebugEnabled()) {
                 log.debug("Response Securosys TSB delete key: {}", responseBody);
@@ -772,6 +1182,75 @@ public class TsbService {
         } catch (JsonProcessingException e) {
             throw new BusinessException("Failed to delete key in TSB: " + e.getMessage(), BusinessReason.ERROR_GENERAL);
         }
+    }
+
+    /**
+     * A call to the TSB independent of the client that sends it: the operation it belongs to, which also defines its
+     * API key and whether it may be retried, method, path below the REST API URL and JSON body. A status poll also
+     * names the TSB request it refers to, which is routed to the instance that accepted it. The endpoint of the
+     * latest attempt is kept so that a retry can avoid it.
+     */
+    private static final class TsbRequest {
+        private final TsbOperation operation;
+        private final Method method;
+        private final String path;
+        private final String body;
+        private final String apiKeyName;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private boolean idempotent;
+        private String requestId;
+        private TsbEndpointPool.Endpoint endpoint;
+
+        private TsbRequest(TsbOperation operation, Method method, String path, String body) {
+            this.operation = operation;
+            this.method = method;
+            this.path = path;
+            this.body = body;
+            this.apiKeyName = operation.getApiKeyName();
+            this.idempotent = operation.isIdempotent();
+        }
+
+        /**
+         * Marks a call of a non-idempotent operation as safe to send again, e.g. a read.
+         */
+        TsbRequest idempotent() {
+            this.idempotent = true;
+            return this;
+        }
+
+        TsbRequest pinnedTo(String requestId) {
+            this.requestId = requestId;
+            return this;
+        }
+
+        static TsbRequest get(TsbOperation operation, String path) {
+            TsbRequest request = new TsbRequest(operation, Method.GET, path, null);
+            request.headers.put("Content-Type", "application/json");
+            return request;
+        }
 
+        static TsbRequest post(TsbOperation operation, String path, String body) {
+            TsbRequest request = new TsbRequest(operation, Method.POST, path, body);
+            request.headers.put("Content-Type", "application/json");
+            return request;
+        }
+
+        static TsbRequest delete(TsbOperation operation, String path) {
+            TsbRequest request = new TsbRequest(operation, Method.DELETE, path, null);
+            request.headers.put("Accept", "*/*");
+            return request;
+        }
+    }
+
+    private static final class TsbResponse {
+        private final int statusCode;
+        private final String body;
+        private final TsbEndpointPool.Endpoint endpoint;
+
+        private TsbResponse(int statusCode, String body, TsbEndpointPool.Endpoint endpoint) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.endpoint = endpoint;
+        }
     }
 }
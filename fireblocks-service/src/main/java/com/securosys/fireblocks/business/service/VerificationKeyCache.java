@@ -0,0 +1,103 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.service;
+
+import com.securosys.fireblocks.business.exceptions.BusinessException;
+import com.securosys.fireblocks.business.exceptions.BusinessReason;
+import com.securosys.fireblocks.business.util.CryptoUtil;
+import com.securosys.fireblocks.configuration.CustomServerProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the parsed public key used to verify the signature of Fireblocks payloads. The configured certificate or
+ * public key file is parsed once; afterwards only its modification time is checked (at most once per
+ * {@code custom-server.verificationKeyReloadCheckSeconds}) and the key is reloaded if the file changed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VerificationKeyCache {
+
+    private final CustomServerProperties properties;
+    private final CryptoUtil cryptoUtil;
+
+    private volatile CachedKey cached;
+
+    public PublicKey getPublicKey() {
+        String location = getConfiguredLocation();
+        CachedKey current = cached;
+        long now = System.currentTimeMillis();
+
+        if (current != null && current.location.equals(location)) {
+            if (now < current.nextCheckAt) {
+                return current.publicKey;
+            }
+            long lastModified = getLastModified(location);
+            if (lastModified == current.lastModified) {
+                cached = new CachedKey(location, current.publicKey, lastModified, nextCheck(now));
+                return current.publicKey;
+            }
+            log.info("Fireblocks verification key '{}' changed, reloading it", location);
+        }
+        return load(location, now);
+    }
+
+    private synchronized PublicKey load(String location, long now) {
+        long lastModified = getLastModified(location);
+        PublicKey publicKey;
+        if (isSet(properties.getFireblocksSignatureCertificate())) {
+            publicKey = cryptoUtil.loadCertificate(location).getPublicKey();
+        } else {
+            publicKey = cryptoUtil.getPublicKeyFromBase64(location);
+        }
+        cached = new CachedKey(location, publicKey, lastModified, nextCheck(now));
+        return publicKey;
+    }
+
+    private String getConfiguredLocation() {
+        if (isSet(properties.getFireblocksSignatureCertificate())) {
+            return properties.getFireblocksSignatureCertificate();
+        } else if (isSet(properties.getFireblocksSignaturePublicKey())) {
+            return properties.getFireblocksSignaturePublicKey();
+        }
+        throw new BusinessException("No Fireblocks verification key or certificate configured",
+                BusinessReason.ERROR_INVALID_CONFIG_INPUT);
+    }
+
+    private long nextCheck(long now) {
+        return now + TimeUnit.SECONDS.toMillis(properties.getVerificationKeyReloadCheckSeconds());
+    }
+
+    private static long getLastModified(String location) {
+        try {
+            return CryptoUtil.getLastModified(location);
+        } catch (Exception e) {
+            // file not accessible (anymore), the next load reports the actual error
+            return -1;
+        }
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static class CachedKey {
+        private final String location;
+        private final PublicKey publicKey;
+        private final long lastModified;
+        private final long nextCheckAt;
+
+        CachedKey(String location, PublicKey publicKey, long lastModified, long nextCheckAt) {
+            this.location = location;
+            this.publicKey = publicKey;
+            this.lastModified = lastModified;
+            this.nextCheckAt = nextCheckAt;
+        }
+    }
+}
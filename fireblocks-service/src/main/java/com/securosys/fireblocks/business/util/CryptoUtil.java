@@ -129,7 +129,7 @@ public class CryptoUtil {
 				}
 
 				X509EncodedKeySpec keySpec = new X509EncodedKeySpec(publicKeyRaw);
-				Security.addProvider(new BouncyCastleProvider());
+				installBouncyCastleProvider();
 				KeyFactory keyFactory = KeyFactory.getInstance(algOid, "BC");
 				return keyFactory.generatePublic(keySpec);
 			}
@@ -140,6 +140,29 @@ public class CryptoUtil {
 		}
 	}
 
+	/**
+	 * Registers the BouncyCastle provider unless it is registered already. Creating the provider is expensive,
+	 * so this must not be done for every operation.
+	 */
+	public static void installBouncyCastleProvider() {
+		if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+			Security.addProvider(new BouncyCastleProvider());
+		}
+	}
+
+	/**
+	 * Returns the last modification time of a key or certificate file, or 0 for classpath resources,
+	 * which cannot change at runtime.
+	 * @param filePath the location as used for {@link #readFileBytes(String)}
+	 */
+	public static long getLastModified(String filePath) throws IOException, URISyntaxException {
+		if (filePath.startsWith("classpath:")) {
+			return 0;
+		}
+		Path path = filePath.startsWith("file:") ? Paths.get(new URI(filePath)) : Paths.get(filePath);
+		return Files.getLastModifiedTime(path).toMillis();
+	}
+
 	public String readPublicKey(String publicKeyPath) throws IOException, URISyntaxException {
 		byte[] keyBytes = readFileBytes(publicKeyPath);
 		return new String(keyBytes, StandardCharsets.UTF_8)
@@ -12,7 +12,6 @@ import com.securosys.fireblocks.business.exceptions.BusinessReason;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
-import jakarta.validation.ValidatorFactory;
 import org.springframework.stereotype.Component;
 
 
@@ -21,6 +20,9 @@ import java.util.Set;
 @Component
 public class JsonUtil {
 
+	// thread safe and expensive to build, so it is shared by all calls
+	private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
 	private final ObjectMapper objectMapper;
 
 	public JsonUtil(ObjectMapper objectMapper) {
@@ -46,9 +48,7 @@ public class JsonUtil {
 	}
 
 	private static <T> void validate(T request) {
-		ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-		Validator validator = factory.getValidator();
-		Set<ConstraintViolation<T>> constraintViolations = validator.validate(request);
+		Set<ConstraintViolation<T>> constraintViolations = VALIDATOR.validate(request);
 		if(!constraintViolations.isEmpty()) {
 			throw ValidationErrorUtil.createException(constraintViolations);
 		}
@@ -0,0 +1,59 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.business.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.securosys.fireblocks.business.dto.customServer.MessagePayload;
+import com.securosys.fireblocks.business.exceptions.BusinessException;
+import com.securosys.fireblocks.business.exceptions.BusinessReason;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parses the payload string of a Fireblocks message exactly once. The resulting tree is used both for the typed
+ * {@link MessagePayload} and for the metadata that is sent along with the sign request to the TSB, while the
+ * original payload string stays untouched for the signature verification.
+ */
+@Component
+public class MessagePayloadParser {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param rawPayload the payload exactly as received from Fireblocks
+     * @param serviceName the service which signed the payload
+     * @param embedRawPayload whether the raw payload and the service name are added to the metadata
+     *                        (required by the TSB to verify the Fireblocks signature)
+     */
+    public ParsedPayload parse(String rawPayload, String serviceName, boolean embedRawPayload) throws JsonProcessingException {
+        JsonNode payloadNode = objectMapper.readTree(rawPayload);
+
+        if (payloadNode == null || !payloadNode.isObject()) {
+            throw new BusinessException("Expected JSON object as rawPayload", BusinessReason.ERROR_INVALID_JSON);
+        }
+
+        MessagePayload payload = objectMapper.treeToValue(payloadNode, MessagePayload.class);
+
+        if (embedRawPayload) {
+            ((ObjectNode) payloadNode).put("rawPayload", rawPayload);
+            ((ObjectNode) payloadNode).put("serviceName", serviceName);
+        }
+
+        return new ParsedPayload(payload, objectMapper.writeValueAsString(payloadNode));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ParsedPayload {
+
+        private final MessagePayload payload;
+
+        /** The payload as JSON, extended by the raw payload and service name if requested. */
+        private final String metadataJson;
+    }
+}
@@ -3,12 +3,16 @@
 
 package com.securosys.fireblocks.configuration;
 
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.List;
+
 @Data
 @Configuration
 @Validated
@@ -25,13 +29,120 @@ public class CustomServerProperties {
      */
     private boolean verifySignatures = true;
 
+    /**
+     * The Fireblocks verification key is parsed once and only reloaded if its file changed.
+     * The modification time of the file is checked at most once per this interval.
+     */
+    @Min(0)
+    private long verificationKeyReloadCheckSeconds = 30;
+
+    /**
+     * Upper limit for the longPollTimeoutSeconds parameter of /messagesStatus.
+     */
+    @Min(0)
+    private long maxLongPollTimeoutSeconds = 60;
+
+    /**
+     * Interval in which a waiting long-poll reads the requested statuses from the database again, to notice
+     * changes made by other nodes sharing the database. 0 relies on the in-process notifications only, which is
+     * enough for a single node.
+     */
+    @Min(0)
+    private long longPollRecheckSeconds = 5;
+
+    /**
+     * How the signed messages of a request status are stored, see {@link StatusStorageLayout}.
+     */
+    @NotNull
+    private StatusStorageLayout statusStorageLayout = StatusStorageLayout.DOCUMENT;
+
     @NotNull
     private FireblocksAgentConfiguration fireblocksAgentConfiguration = new FireblocksAgentConfiguration();
 
+    @NotNull
+    private Signing signing = new Signing();
+
+    @NotNull
+    private StatusCache statusCache = new StatusCache();
+
+    @NotNull
+    private Retention retention = new Retention();
+
+    public enum StatusStorageLayout {
+        /** One JSON column of message_status, a status is read and written as a single row. */
+        DOCUMENT,
+        /** The tables message_response and signed_message, one row per signed message. */
+        RELATIONAL
+    }
+
     @Data
     public static class FireblocksAgentConfiguration {
         @NotNull
         private String apiAuthorization;
     }
 
+    @Data
+    public static class Signing {
+
+        /**
+         * If enabled, /messagesToSign stores the envelopes with status PENDING_SIGN and returns immediately.
+         * The signing is done by background workers, results are reported through /messagesStatus.
+         */
+        private boolean asynchronous = false;
+
+        /** Number of background signing workers (asynchronous mode only). */
+        @Min(1)
+        private int workerThreads = 4;
+
+        /** Number of envelopes that may wait for a free worker before new ones are left for /signAllPendingMessages. */
+        @Min(0)
+        private int workerQueueCapacity = 500;
+
+        /** Number of envelopes of one /messagesToSign request that are signed concurrently. */
+        @Min(1)
+        private int envelopeParallelism = 4;
+    }
+
+    /**
+     * In-memory cache of final (SIGNED or FAILED) statuses served by /messagesStatus.
+     */
+    @Data
+    public static class StatusCache {
+
+        /** Maximum number of cached requests, the least recently used ones are evicted. 0 disables the cache. */
+        @Min(0)
+        private int maxEntries = 10000;
+
+        /**
+         * Lifetime of a cached status. Invalidations are local to the node, so with several nodes sharing the
+         * database a request signed again on another node may be reported with its old final status for this long.
+         */
+        @Min(1)
+        private long ttlSeconds = 60;
+    }
+
+    /**
+     * Deletion of old requests (status, response, envelope and message) by a scheduled job.
+     */
+    @Data
+    public static class Retention {
+
+        private boolean enabled = false;
+
+        /** Requests are deleted once their status did not change for this many days. */
+        @Min(1)
+        private int maxAgeDays = 90;
+
+        /** Only requests with one of these statuses are deleted. */
+        @NotEmpty
+        private List<String> statuses = List.of("SIGNED", "FAILED");
+
+        /** Number of requests deleted per transaction. */
+        @Min(1)
+        private int chunkSize = 500;
+
+        @Min(1)
+        private long intervalSeconds = 3600;
+    }
+
 }
@@ -0,0 +1,89 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.configuration;
+
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded executors used to take signing and TSB polling work off the request and scheduler threads.
+ * <p>
+ * With {@code spring.threads.virtual.enabled} on Java 21, the executors run their tasks on virtual threads. Pool
+ * sizes, queues and rejection stay as configured: they bound the load on the TSB and the database pool, which
+ * virtual threads do not relieve, but larger values no longer cost a platform thread each.
+ */
+@Configuration
+public class SigningExecutorConfiguration {
+
+    public static final String SIGNING_WORKER_EXECUTOR = "signingWorkerExecutor";
+    public static final String SIGNING_ENVELOPE_EXECUTOR = "signingEnvelopeExecutor";
+    public static final String STATUS_SYNC_EXECUTOR = "statusSyncExecutor";
+
+    @Bean(name = SIGNING_WORKER_EXECUTOR)
+    public ThreadPoolTaskExecutor signingWorkerExecutor(CustomServerProperties properties, Environment environment) {
+        CustomServerProperties.Signing signing = properties.getSigning();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(signing.getWorkerThreads());
+        executor.setMaxPoolSize(signing.getWorkerThreads());
+        executor.setQueueCapacity(signing.getWorkerQueueCapacity());
+        setThreads(executor, "signing-worker-", environment);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Signs the envelopes of one /messagesToSign request concurrently. There is no queue: if all threads are busy,
+     * the request thread signs the envelope itself, which bounds the load without rejecting envelopes.
+     */
+    @Bean(name = SIGNING_ENVELOPE_EXECUTOR)
+    public ThreadPoolTaskExecutor signingEnvelopeExecutor(CustomServerProperties properties, Environment environment) {
+        CustomServerProperties.Signing signing = properties.getSigning();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(signing.getEnvelopeParallelism());
+        executor.setMaxPoolSize(signing.getEnvelopeParallelism());
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        setThreads(executor, "signing-envelope-", environment);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Polls the TSB for pending requests during the scheduled status sync. The queue is bounded: when it is full,
+     * the scheduler thread polls the request itself, which slows down submitting a large due batch instead of
+     * queueing all of it.
+     */
+    @Bean(name = STATUS_SYNC_EXECUTOR)
+    public ThreadPoolTaskExecutor statusSyncExecutor(TsbProperties tsbProperties, Environment environment) {
+        int concurrency = tsbProperties.getStatusSync().getConcurrency();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(tsbProperties.getStatusSync().getQueueCapacity());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        setThreads(executor, "status-sync-", environment);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    private static void setThreads(ThreadPoolTaskExecutor executor, String threadNamePrefix, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+        } else {
+            executor.setThreadNamePrefix(threadNamePrefix);
+        }
+    }
+}
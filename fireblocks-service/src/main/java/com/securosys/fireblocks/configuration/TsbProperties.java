@@ -3,11 +3,18 @@
 
 package com.securosys.fireblocks.configuration;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Configuration
 @Validated
@@ -15,12 +22,259 @@ import org.springframework.validation.annotation.Validated;
 public class TsbProperties {
 
     private String tsbRestApi;
+
+    /**
+     * Further TSB instances in front of the same HSM cluster. Calls are spread over these and {@code tsbRestApi},
+     * see {@link Endpoints}.
+     */
+    private List<String> tsbRestApis = new ArrayList<>();
+
     private String tsbAccessToken;
     private String tsbMTlsCertificate;
     private String tsbMTlsKey;
     private ApiKeyTypes apiAuthentication;
     private boolean airGapped = false;
 
-}
+    @NotNull
+    private ConnectionPool connectionPool = new ConnectionPool();
+
+    @NotNull
+    private Approval approval = new Approval();
+
+    @NotNull
+    private LicenseCache licenseCache = new LicenseCache();
+
+    @NotNull
+    private StatusSync statusSync = new StatusSync();
+
+    @NotNull
+    private Cluster cluster = new Cluster();
+
+    @NotNull
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @NotNull
+    private Retry retry = new Retry();
+
+    @NotNull
+    private Endpoints endpoints = new Endpoints();
+
+    /**
+     * Settings of the pooled HTTP client that is shared by all calls to the TSB (with and without mTLS).
+     */
+    @Data
+    public static class ConnectionPool {
+
+        /** Maximum number of open connections in total. */
+        @Min(1)
+        private int maxConnections = 50;
+
+        /** Maximum number of open connections per TSB host. */
+        @Min(1)
+        private int maxConnectionsPerRoute = 20;
+
+        /** How long an idle connection is kept alive when the TSB does not send a Keep-Alive header. */
+        @Min(1)
+        private long keepAliveSeconds = 60;
+
+        /** Idle connections older than this are closed by a background eviction thread. */
+        @Min(1)
+        private long idleEvictionSeconds = 30;
+
+        @Min(1)
+        private long connectTimeoutSeconds = 10;
+
+        @Min(1)
+        private long socketTimeoutSeconds = 60;
+    }
+
+    /**
+     * Settings of the approval tracker that polls the TSB for requests waiting for approval (SKA keys).
+     */
+    @Data
+    public static class Approval {
+
+        /** Delay between two status polls of the same request. */
+        @Min(1)
+        private long pollIntervalMillis = 5000;
+
+        /** After this time the last known (pending) status is returned to the caller. */
+        @Min(1)
+        private long timeoutMillis = 120000;
+
+        /** Threads starting the polls of all outstanding requests. The polls do not block them while in flight. */
+        @Min(1)
+        private int pollerThreads = 2;
+
+        /** Polls in flight at most; should not exceed tsb.circuitBreaker.requestStatusMaxConcurrentCalls. */
+        @Min(1)
+        private int maxConcurrentPolls = 32;
+    }
+
+    /**
+     * Settings of the cached TSB license information, which is checked before every signing operation.
+     */
+    @Data
+    public static class LicenseCache {
+
+        /** Age after which the license is refreshed in the background. 0 disables the cache. */
+        @Min(0)
+        private long ttlSeconds = 300;
+
+        /** How long after the TTL the last known license is still served if the refresh fails. */
+        @Min(0)
+        private long maxStaleSeconds = 3600;
+    }
+
+    /**
+     * Settings of the scheduled sync of pending requests with the TSB (see {@code intervalFetchResults}).
+     */
+    @Data
+    public static class StatusSync {
+
+        /** Number of pending requests polled in parallel. Should not exceed the connections per route of the pool. */
+        @Min(1)
+        private int concurrency = 8;
+
+        /** Polls waiting for a free thread; when full, the scheduler thread polls itself. */
+        @Min(0)
+        private int queueCapacity = 16;
 
+        /** Maximum number of due requests loaded from the database at once. */
+        @Min(1)
+        private int batchSize = 500;
 
+        /** Delay before a pending request is polled the first time; doubled after every poll without result. */
+        @Min(1)
+        private long firstPollDelaySeconds = 60;
+
+        /**
+         * Upper limit of the delay between two polls of the same request. An approval is noticed up to this delay
+         * plus {@code intervalFetchResults} after it was given; a larger value only saves polls of requests that
+         * stay pending for long. The default matches {@code intervalFetchResults}.
+         */
+        @Min(1)
+        private long maxPollDelaySeconds = 600;
+    }
+
+    /**
+     * Settings of the circuit breakers per TSB endpoint and class of calls (sign, request status, key management,
+     * license), and of the bulkheads per class of calls. Calls refused by them fail right away with
+     * res.error.tsb.unavailable.
+     */
+    @Data
+    public static class CircuitBreaker {
+
+        private boolean enabled = true;
+
+        /** Consecutive failures (connection errors, timeouts, HTTP 5xx) after which the circuit opens. */
+        @Min(1)
+        private int failureThreshold = 5;
+
+        /** How long an open circuit refuses calls before a single trial call is let through. */
+        @Min(1)
+        private long openSeconds = 30;
+
+        /**
+         * How long a call waits for a free slot when its operation already has the maximum number of calls in
+         * flight, 0 refuses it right away.
+         */
+        @Min(0)
+        private long bulkheadMaxWaitMillis = 5000;
+
+        /** Maximum number of sign calls in flight, further calls wait for a free slot. */
+        @Min(1)
+        private int signMaxConcurrentCalls = 32;
+
+        /** Maximum number of request status polls in flight. */
+        @Min(1)
+        private int requestStatusMaxConcurrentCalls = 32;
+
+        /** Maximum number of key and certificate management calls in flight. */
+        @Min(1)
+        private int keyManagementMaxConcurrentCalls = 8;
+
+        /** Maximum number of license calls in flight. */
+        @Min(1)
+        private int licenseMaxConcurrentCalls = 4;
+    }
+
+    /**
+     * Settings of the retries of TSB calls that failed transiently (see TsbRetryPolicy). Sign calls are only retried
+     * if they could not connect, as the TSB may otherwise have received them.
+     */
+    @Data
+    public static class Retry {
+
+        private boolean enabled = true;
+
+        /** Attempts per call, including the first one. */
+        @Min(1)
+        private int maxAttempts = 3;
+
+        /** Upper limit of the random delay before the first retry, doubled for every further retry. */
+        @Min(1)
+        private long initialBackoffMillis = 200;
+
+        @Min(1)
+        private long maxBackoffMillis = 2000;
+
+        /** Retries earned by every call, e.g. 0.1 allows one retry per ten calls in the long run. */
+        @DecimalMin("0.0")
+        private double budgetRatio = 0.1;
+
+        /** Retries the budget holds at most, i.e. the burst of retries allowed after a quiet period. */
+        @Min(0)
+        private int budgetMaxRetries = 20;
+    }
+
+    /**
+     * Settings of the routing of calls over several TSB instances (see TsbEndpointPool). Without
+     * {@code tsbRestApis} all calls go to {@code tsbRestApi} and nothing is probed.
+     */
+    @Data
+    public static class Endpoints {
+
+        /** Interval of the health probes of all endpoints. */
+        @Min(1)
+        private long probeIntervalSeconds = 10;
+
+        /** Time a probe may take to connect, to get a pooled connection and to get the answer. */
+        @Min(1)
+        private long probeTimeoutMillis = 2000;
+
+        /** Failed calls or probes in a row after which an endpoint gets no calls until a probe succeeds. */
+        @Min(1)
+        private int unhealthyAfterFailures = 2;
+
+        /** Weight of the newest sample in the moving average of the latency of an endpoint. */
+        @DecimalMin("0.01")
+        @DecimalMax("1.0")
+        private double latencyWeight = 0.3;
+
+        /** Signing requests whose accepting endpoint is remembered for the status polls. */
+        @Min(0)
+        private int maxPinnedRequests = 10000;
+    }
+
+    /**
+     * Settings for running several nodes against one database. Scheduled jobs are then coordinated by leases
+     * in the scheduler_lock table, so that only one node polls the TSB.
+     */
+    @Data
+    public static class Cluster {
+
+        private boolean enabled = false;
+
+        /** Unique name of this node. Defaults to the host name plus a random suffix. */
+        private String nodeId;
+
+        /**
+         * Duration of a lease, renewed by the holder every third of it. Bounds how long the scheduled jobs pause
+         * after the holder crashed.
+         */
+        @Min(3)
+        private long leaseSeconds = 60;
+    }
+
+}
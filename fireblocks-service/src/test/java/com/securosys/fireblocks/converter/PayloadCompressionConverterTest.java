@@ -0,0 +1,105 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.converter;
+
+import com.securosys.fireblocks.datamodel.converter.PayloadCompressionConverter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.Inflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PayloadCompressionConverterTest {
+
+    private static final String PAYLOAD = "{\"tenantId\":\"3f1c2a9e-5b7d-4e8f-9a0b-1c2d3e4f5a6b\",\"type\":\"KEY_LINK_TX_SIGN_REQUEST\","
+            + "\"algorithm\":\"ECDSA_SECP256K1\",\"signingDeviceKeyId\":\"key-1\",\"keyId\":\"7a8b9c0d\","
+            + "\"messagesToSign\":[{\"message\":\"c2lnbiBtZSBwbGVhc2U=\",\"index\":0}],"
+            + "\"txId\":\"0b6a2c4e-8d1f-4a3b-9c5e-7f0a1b2c3d4e\",\"txMetaData\":\"e30=\","
+            + "\"txMetaDataSignatures\":[{\"certificatePath\":\"/certs/fireblocks.pem\",\"signature\":\"MEUCIQ\"}]}";
+
+    private final PayloadCompressionConverter enabled = new PayloadCompressionConverter(true);
+    private final PayloadCompressionConverter disabled = new PayloadCompressionConverter(false);
+
+    @Test
+    @DisplayName("A payload is stored compressed with the marker and read back unchanged")
+    void roundTrip_compressed() {
+        String stored = enabled.convertToDatabaseColumn(PAYLOAD);
+
+        assertThat(stored).startsWith(PayloadCompressionConverter.MARKER);
+        assertThat(stored.length()).isLessThan(PAYLOAD.length());
+        assertThat(enabled.convertToEntityAttribute(stored)).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    @DisplayName("Non-ASCII content survives the round trip")
+    void roundTrip_utf8() {
+        String payload = PAYLOAD.replace("key-1", "clé-ü-✓").repeat(3);
+
+        assertThat(enabled.convertToEntityAttribute(enabled.convertToDatabaseColumn(payload))).isEqualTo(payload);
+    }
+
+    @Test
+    @DisplayName("The stored value needs the preset dictionary to be inflated")
+    void compressed_usesDictionary() throws Exception {
+        String stored = enabled.convertToDatabaseColumn(PAYLOAD);
+        byte[] compressed = Base64.getDecoder().decode(stored.substring(PayloadCompressionConverter.MARKER.length()));
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            assertThat(inflater.inflate(new byte[PAYLOAD.length()])).isZero();
+            assertThat(inflater.needsDictionary()).isTrue();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Test
+    @DisplayName("A short payload shrinks thanks to the dictionary, a tiny one is stored as it is")
+    void shortPayloads() {
+        String shortPayload = "{\"tenantId\":\"t\",\"messagesToSign\":[{\"message\":\"abc\",\"index\":0}]}";
+        assertThat(enabled.convertToDatabaseColumn(shortPayload)).startsWith(PayloadCompressionConverter.MARKER);
+
+        assertThat(enabled.convertToDatabaseColumn("{}")).isEqualTo("{}");
+        assertThat(enabled.convertToDatabaseColumn("")).isEmpty();
+        assertThat(enabled.convertToDatabaseColumn(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("With compression disabled payloads are stored as they are, compressed ones stay readable")
+    void disabled_storesPlainReadsBoth() {
+        assertThat(disabled.convertToDatabaseColumn(PAYLOAD)).isEqualTo(PAYLOAD);
+        assertThat(disabled.convertToEntityAttribute(enabled.convertToDatabaseColumn(PAYLOAD))).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    @DisplayName("Values stored without the marker are read as they are")
+    void legacyValues_readAsIs() {
+        assertThat(enabled.convertToEntityAttribute(PAYLOAD)).isEqualTo(PAYLOAD);
+        assertThat(enabled.convertToEntityAttribute("")).isEmpty();
+        assertThat(enabled.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Corrupt or truncated values are rejected")
+    void corruptValues_areRejected() {
+        String stored = enabled.convertToDatabaseColumn(PAYLOAD);
+        byte[] compressed = Base64.getDecoder().decode(stored.substring(PayloadCompressionConverter.MARKER.length()));
+        String truncated = PayloadCompressionConverter.MARKER
+                + Base64.getEncoder().encodeToString(Arrays.copyOf(compressed, compressed.length / 2));
+        String garbage = PayloadCompressionConverter.MARKER
+                + Base64.getEncoder().encodeToString("not deflate data".getBytes());
+
+        assertThatThrownBy(() -> enabled.convertToEntityAttribute(truncated))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> enabled.convertToEntityAttribute(garbage))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> enabled.convertToEntityAttribute(PayloadCompressionConverter.MARKER + "%%%"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,178 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs V1_8_0__Convert_uuid_columns_to_binary on H2 against data written with the varchar(36) schema.
+ */
+class ConvertUuidColumnsMigrationTest {
+
+    private static final String[] LOCATIONS = {
+            "classpath:com/securosys/fireblocks/datamodel/mariadb/migration",
+            "classpath:com/securosys/fireblocks/datamodel/migration"};
+
+    private final UUID statusId = UUID.randomUUID();
+    private final UUID requestId = UUID.randomUUID();
+    private final UUID responseId = UUID.randomUUID();
+    private final UUID signedMessageId = UUID.randomUUID();
+    private final UUID envelopeId = UUID.randomUUID();
+    private final UUID messageId = UUID.randomUUID();
+    private final UUID signatureDataId = UUID.randomUUID();
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:migration-" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1;MODE=MYSQL;NON_KEYWORDS=value");
+        jdbc = new JdbcTemplate(dataSource);
+
+        migrate("1.7.1");
+        insertRequest();
+    }
+
+    @Test
+    @DisplayName("All rows keep their IDs and references")
+    void migrate_keepsData() {
+        migrate("1.8.0");
+
+        assertThat(count("select count(*) from message_status where id = ? and request_id = ?",
+                bytes(statusId), bytes(requestId))).isEqualTo(1);
+        assertThat(count("select count(*) from signed_message s"
+                + " join message_response r on s.response_id = r.id"
+                + " join message_status m on r.status_id = m.id"
+                + " where s.id = ? and r.id = ? and m.request_id = ?",
+                bytes(signedMessageId), bytes(responseId), bytes(requestId))).isEqualTo(1);
+        assertThat(count("select count(*) from payload_signature_data p"
+                + " join message m on p.message_id = m.id"
+                + " join message_envelope e on m.envelope_id = e.id"
+                + " where p.id = ? and m.id = ? and e.id = ? and e.request_id = ?",
+                bytes(signatureDataId), bytes(messageId), bytes(envelopeId), bytes(requestId))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Primary, unique and foreign keys are re-created, with ON DELETE CASCADE")
+    void migrate_recreatesKeys() {
+        migrate("1.8.0");
+        assertKeys();
+    }
+
+    @Test
+    @DisplayName("A run stopped after converting some tables is completed by the next run")
+    void migrate_resumesPartialConversion() {
+        // state of a run stopped after converting message_status
+        jdbc.execute("alter table message_response drop constraint fk_message_response_status");
+        jdbc.execute("alter table signed_message drop constraint fk_signed_message_response");
+        jdbc.execute("alter table message drop constraint fk_message_envelope");
+        jdbc.execute("alter table payload_signature_data drop constraint fk_payload_signature_message");
+        jdbc.execute("alter table message_status add column id_bin binary(16) null");
+        jdbc.execute("alter table message_status add column request_id_bin binary(16) null");
+        jdbc.execute("update message_status set id_bin = hextoraw(replace(id, '-', '')),"
+                + " request_id_bin = hextoraw(replace(request_id, '-', ''))");
+        jdbc.execute("alter table message_status drop primary key");
+        jdbc.execute("alter table message_status drop constraint uq_message_status_request_id");
+        jdbc.execute("alter table message_status drop column id");
+        jdbc.execute("alter table message_status drop column request_id");
+        jdbc.execute("alter table message_status alter column id_bin rename to id");
+        jdbc.execute("alter table message_status alter column id set not null");
+        jdbc.execute("alter table message_status alter column request_id_bin rename to request_id");
+        jdbc.execute("alter table message_status alter column request_id set not null");
+        jdbc.execute("alter table message_status add primary key (id)");
+        jdbc.execute("alter table message_status add constraint uq_message_status_request_id unique (request_id)");
+        // and after adding the binary columns of message_response
+        jdbc.execute("alter table message_response add column id_bin binary(16) null");
+
+        migrate("1.8.0");
+
+        assertThat(count("select count(*) from signed_message s"
+                + " join message_response r on s.response_id = r.id"
+                + " join message_status m on r.status_id = m.id"
+                + " where m.id = ? and m.request_id = ?", bytes(statusId), bytes(requestId))).isEqualTo(1);
+        assertKeys();
+    }
+
+    @Test
+    @DisplayName("The later migrations run on the converted schema")
+    void migrate_toLatest() {
+        migrate("latest");
+
+        assertThat(count("select count(*) from message_status where request_id = ?", bytes(requestId))).isEqualTo(1);
+    }
+
+    private void assertKeys() {
+        assertThatThrownBy(() -> jdbc.update("insert into message_status (id, request_id, type, status) values (?, ?, 'SIGN', 'SIGNED')",
+                bytes(statusId), bytes(UUID.randomUUID())))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbc.update("insert into message_status (id, request_id, type, status) values (?, ?, 'SIGN', 'SIGNED')",
+                bytes(UUID.randomUUID()), bytes(requestId)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbc.update("insert into message_envelope (id, request_id, metadata_type) values (?, ?, 'TYPE')",
+                bytes(UUID.randomUUID()), bytes(requestId)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbc.update("insert into signed_message (id, response_id, message, signature, msg_index) values (?, ?, 'm', 's', 1)",
+                bytes(UUID.randomUUID()), bytes(UUID.randomUUID())))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        jdbc.update("delete from message_status where id = ?", bytes(statusId));
+        jdbc.update("delete from message_envelope where id = ?", bytes(envelopeId));
+
+        assertThat(count("select count(*) from message_response")).isZero();
+        assertThat(count("select count(*) from signed_message")).isZero();
+        assertThat(count("select count(*) from message")).isZero();
+        assertThat(count("select count(*) from payload_signature_data")).isZero();
+    }
+
+    private void insertRequest() {
+        jdbc.update("insert into message_status (id, request_id, type, status) values (?, ?, 'SIGN', 'SIGNED')",
+                statusId.toString(), requestId.toString());
+        jdbc.update("insert into message_response (id, status_id) values (?, ?)",
+                responseId.toString(), statusId.toString());
+        jdbc.update("insert into signed_message (id, response_id, message, signature, msg_index) values (?, ?, 'm', 's', 0)",
+                signedMessageId.toString(), responseId.toString());
+        jdbc.update("insert into message_envelope (id, request_id, metadata_type) values (?, ?, 'TYPE')",
+                envelopeId.toString(), requestId.toString());
+        jdbc.update("insert into message (id, envelope_id, payload) values (?, ?, 'payload')",
+                messageId.toString(), envelopeId.toString());
+        jdbc.update("insert into payload_signature_data (id, message_id, signature, service) values (?, ?, 'sig', 'service')",
+                signatureDataId.toString(), messageId.toString());
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations(LOCATIONS)
+                .table("schema_version")
+                .sqlMigrationPrefix("v")
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private int count(String sql, Object... args) {
+        Integer count = jdbc.queryForObject(sql, Integer.class, args);
+        return count != null ? count : 0;
+    }
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,200 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.dto.response.RequestStatusResponseDto;
+import com.securosys.fireblocks.business.exceptions.BusinessException;
+import com.securosys.fireblocks.business.exceptions.BusinessReason;
+import com.securosys.fireblocks.business.service.ApprovalTracker;
+import com.securosys.fireblocks.business.service.TsbService;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApprovalTrackerTest {
+
+    private static final String REQUEST_ID = "req-1";
+
+    @Mock
+    private TsbService tsbService;
+
+    private TsbProperties tsbProperties;
+    private ApprovalTracker approvalTracker;
+
+    @BeforeEach
+    void setUp() {
+        tsbProperties = new TsbProperties();
+        tsbProperties.getApproval().setPollIntervalMillis(10);
+        tsbProperties.getApproval().setTimeoutMillis(5000);
+        approvalTracker = new ApprovalTracker(tsbService, tsbProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        approvalTracker.shutdown();
+    }
+
+    @Test
+    @DisplayName("A request that is not pending completes right away without polling")
+    void track_notPending_completesImmediately() throws Exception {
+        RequestStatusResponseDto executed = status("EXECUTED");
+
+        CompletableFuture<RequestStatusResponseDto> future = approvalTracker.track(REQUEST_ID, executed);
+
+        assertThat(future).isCompleted();
+        assertThat(future.get()).isSameAs(executed);
+        assertThat(approvalTracker.getPendingCount()).isZero();
+        verifyNoInteractions(tsbService);
+    }
+
+    @Test
+    @DisplayName("A pending request completes once the TSB reports it executed")
+    void track_pending_completesWhenExecuted() throws Exception {
+        RequestStatusResponseDto executed = status("EXECUTED");
+        when(tsbService.getRequestAsync(REQUEST_ID))
+                .thenReturn(CompletableFuture.completedFuture(status("PENDING")))
+                .thenReturn(CompletableFuture.completedFuture(executed));
+
+        RequestStatusResponseDto result = approvalTracker.track(REQUEST_ID, status("PENDING")).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isSameAs(executed);
+        assertThat(approvalTracker.getPendingCount()).isZero();
+        verify(tsbService, times(2)).getRequestAsync(REQUEST_ID);
+    }
+
+    @Test
+    @DisplayName("A request tracked without a status gets its first status from the poll of the tracker")
+    void track_withoutStatus_firstStatusPolled() throws Exception {
+        RequestStatusResponseDto executed = status("EXECUTED");
+        when(tsbService.getRequestAsync(REQUEST_ID)).thenReturn(CompletableFuture.completedFuture(executed));
+
+        RequestStatusResponseDto result = approvalTracker.track(REQUEST_ID).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isSameAs(executed);
+        verify(tsbService, times(1)).getRequestAsync(REQUEST_ID);
+    }
+
+    @Test
+    @DisplayName("The first polls of requests tracked without a status are limited by maxConcurrentPolls")
+    void track_withoutStatus_firstPollLimited() throws Exception {
+        tearDown();
+        tsbProperties.getApproval().setMaxConcurrentPolls(1);
+        approvalTracker = new ApprovalTracker(tsbService, tsbProperties);
+        CompletableFuture<RequestStatusResponseDto> firstResponse = new CompletableFuture<>();
+        RequestStatusResponseDto executed = status("EXECUTED");
+        when(tsbService.getRequestAsync(REQUEST_ID)).thenReturn(firstResponse);
+        when(tsbService.getRequestAsync("req-2")).thenReturn(CompletableFuture.completedFuture(executed));
+
+        CompletableFuture<RequestStatusResponseDto> first = approvalTracker.track(REQUEST_ID);
+        CompletableFuture<RequestStatusResponseDto> second = approvalTracker.track("req-2");
+
+        verify(tsbService, timeout(5000)).getRequestAsync(REQUEST_ID);
+        verify(tsbService, after(100).never()).getRequestAsync("req-2");
+
+        firstResponse.complete(status("EXECUTED"));
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo("EXECUTED");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(executed);
+    }
+
+    @Test
+    @DisplayName("A request still pending at the timeout completes with the last pending status")
+    void track_timeout_completesWithPendingStatus() throws Exception {
+        tearDown();
+        tsbProperties.getApproval().setTimeoutMillis(100);
+        approvalTracker = new ApprovalTracker(tsbService, tsbProperties);
+        RequestStatusResponseDto pending = status("PENDING");
+        when(tsbService.getRequestAsync(REQUEST_ID)).thenReturn(CompletableFuture.completedFuture(pending));
+
+        RequestStatusResponseDto result = approvalTracker.track(REQUEST_ID, status("PENDING")).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isSameAs(pending);
+        assertThat(approvalTracker.getPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Tracking the same request twice shares one future and one poll schedule")
+    void track_sameRequestTwice_sharesFuture() throws Exception {
+        CompletableFuture<RequestStatusResponseDto> response = new CompletableFuture<>();
+        when(tsbService.getRequestAsync(REQUEST_ID)).thenReturn(response);
+
+        CompletableFuture<RequestStatusResponseDto> first = approvalTracker.track(REQUEST_ID, status("PENDING"));
+        CompletableFuture<RequestStatusResponseDto> second = approvalTracker.track(REQUEST_ID, status("PENDING"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(approvalTracker.getPendingCount()).isEqualTo(1);
+
+        RequestStatusResponseDto executed = status("EXECUTED");
+        verify(tsbService, timeout(5000)).getRequestAsync(REQUEST_ID);
+        response.complete(executed);
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(executed);
+        verify(tsbService, times(1)).getRequestAsync(REQUEST_ID);
+    }
+
+    @Test
+    @DisplayName("A failed poll keeps the request pending and it is polled again")
+    void track_transientError_isRetried() throws Exception {
+        RequestStatusResponseDto executed = status("EXECUTED");
+        when(tsbService.getRequestAsync(REQUEST_ID))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new BusinessException("Error executing request", BusinessReason.ERROR_IN_SUBSYSTEM)))
+                .thenReturn(CompletableFuture.completedFuture(executed));
+
+        RequestStatusResponseDto result = approvalTracker.track(REQUEST_ID, status("PENDING")).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isSameAs(executed);
+        verify(tsbService, times(2)).getRequestAsync(REQUEST_ID);
+    }
+
+    @Test
+    @DisplayName("Shutting down fails the futures of all tracked requests")
+    void shutdown_failsPendingFutures() {
+        lenient().when(tsbService.getRequestAsync(REQUEST_ID)).thenReturn(new CompletableFuture<>());
+        CompletableFuture<RequestStatusResponseDto> future = approvalTracker.track(REQUEST_ID, status("PENDING"));
+
+        approvalTracker.shutdown();
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(BusinessException.class);
+        assertThat(approvalTracker.getPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Tracking a request after the shutdown fails its future instead of throwing")
+    void track_afterShutdown_failsFuture() {
+        approvalTracker.shutdown();
+
+        CompletableFuture<RequestStatusResponseDto> future = approvalTracker.track(REQUEST_ID, status("PENDING"));
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .extracting(e -> ((BusinessException) e.getCause()).getReason())
+                .isEqualTo(BusinessReason.ERROR_IN_SUBSYSTEM);
+        assertThat(approvalTracker.getPendingCount()).isZero();
+        verifyNoInteractions(tsbService);
+    }
+
+    private static RequestStatusResponseDto status(String status) {
+        RequestStatusResponseDto dto = new RequestStatusResponseDto();
+        dto.setId(REQUEST_ID);
+        dto.setStatus(status);
+        return dto;
+    }
+}
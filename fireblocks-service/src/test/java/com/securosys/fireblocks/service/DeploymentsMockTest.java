@@ -5,18 +5,22 @@ package com.securosys.fireblocks.service;
 
 import com.securosys.fireblocks.business.dto.response.RequestStatusResponseDto;
 import com.securosys.fireblocks.business.facade.HsmFacade;
+import com.securosys.fireblocks.business.service.ApprovalTracker;
+import com.securosys.fireblocks.business.service.LicenseCache;
 import com.securosys.fireblocks.business.service.TsbService;
-import com.securosys.fireblocks.business.util.CryptoUtil;
+import com.securosys.fireblocks.business.service.VerificationKeyCache;
 import com.securosys.fireblocks.configuration.CustomServerProperties;
 import com.securosys.fireblocks.configuration.TsbProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -32,11 +36,26 @@ class DeploymentsMockTest {
     @Mock
     private TsbProperties tsbProperties;
     @Mock
-    private CryptoUtil cryptoUtil;
+    private VerificationKeyCache verificationKeyCache;
+    @Mock
+    private LicenseCache licenseCache;
 
-    @InjectMocks
+    private ApprovalTracker approvalTracker;
     private HsmFacade hsmFacade;
 
+    @BeforeEach
+    void setUp() {
+        TsbProperties approvalProperties = new TsbProperties();
+        approvalProperties.getApproval().setPollIntervalMillis(10);
+        approvalTracker = new ApprovalTracker(tsbService, approvalProperties);
+        hsmFacade = new HsmFacade(tsbService, properties, tsbProperties, verificationKeyCache, approvalTracker, licenseCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        approvalTracker.shutdown();
+    }
+
     @Test
     @DisplayName("2.6.1.2 SKA key → should succeed")
     void executeTransactionWithSkaKey_shouldSucceed() {
@@ -51,8 +70,8 @@ class DeploymentsMockTest {
 
         String fakeSignatureId = "req-123";
 
-        when(tsbService.sign(any(), any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn(fakeSignatureId);
+        when(tsbService.signAsync(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(fakeSignatureId));
 
         RequestStatusResponseDto pendingResponse = new RequestStatusResponseDto();
         pendingResponse.setId(fakeSignatureId);
@@ -63,9 +82,9 @@ class DeploymentsMockTest {
         executedResponse.setStatus("EXECUTED");
         executedResponse.setResult(Base64.getEncoder().encodeToString("signature".getBytes()));
 
-        when(tsbService.getRequest(fakeSignatureId))
-                .thenReturn(pendingResponse)
-                .thenReturn(executedResponse);
+        when(tsbService.getRequestAsync(fakeSignatureId))
+                .thenReturn(CompletableFuture.completedFuture(pendingResponse))
+                .thenReturn(CompletableFuture.completedFuture(executedResponse));
 
         // when
         RequestStatusResponseDto result = hsmFacade.sign(
@@ -82,8 +101,8 @@ class DeploymentsMockTest {
         assertThat(result.getStatus()).isEqualTo("EXECUTED");
         assertThat(result.getResult()).isNotBlank();
 
-        verify(tsbService, times(2)).getRequest(fakeSignatureId);
-        verify(tsbService).sign(label, password, payload, "HEX", "RAW", "NONE_WITH_ECDSA", metadata, metadataSignature);
+        verify(tsbService, times(2)).getRequestAsync(fakeSignatureId);
+        verify(tsbService).signAsync(label, password, payload, "HEX", "RAW", "NONE_WITH_ECDSA", metadata, metadataSignature);
     }
 
 
@@ -101,8 +120,8 @@ class DeploymentsMockTest {
 
         String fakeSignatureId = "req-123";
 
-        when(tsbService.sign(any(), any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn(fakeSignatureId);
+        when(tsbService.signAsync(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(fakeSignatureId));
 
         RequestStatusResponseDto pendingResponse = new RequestStatusResponseDto();
         pendingResponse.setId(fakeSignatureId);
@@ -113,9 +132,9 @@ class DeploymentsMockTest {
         executedResponse.setStatus("EXECUTED");
         executedResponse.setResult(Base64.getEncoder().encodeToString("signature".getBytes()));
 
-        when(tsbService.getRequest(fakeSignatureId))
-                .thenReturn(pendingResponse)
-                .thenReturn(executedResponse);
+        when(tsbService.getRequestAsync(fakeSignatureId))
+                .thenReturn(CompletableFuture.completedFuture(pendingResponse))
+                .thenReturn(CompletableFuture.completedFuture(executedResponse));
 
         // when
         RequestStatusResponseDto result = hsmFacade.sign(
@@ -132,6 +151,6 @@ class DeploymentsMockTest {
         assertThat(result.getStatus()).isEqualTo("EXECUTED");
         assertThat(result.getResult()).isNotBlank();
 
-        verify(tsbService, times(2)).getRequest(fakeSignatureId);
+        verify(tsbService, times(2)).getRequestAsync(fakeSignatureId);
     }
 }
@@ -0,0 +1,193 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.dto.customServer.MessageResponse;
+import com.securosys.fireblocks.business.dto.customServer.MessageStatus;
+import com.securosys.fireblocks.business.dto.customServer.SignedMessage;
+import com.securosys.fireblocks.business.repository.MessageEnvelopeRepository;
+import com.securosys.fireblocks.business.repository.MessageResponseRepository;
+import com.securosys.fireblocks.business.repository.MessageStatusRepository;
+import com.securosys.fireblocks.business.service.MessageStatusService;
+import com.securosys.fireblocks.business.service.StatusChangeRegistry;
+import com.securosys.fireblocks.business.service.TerminalStatusCache;
+import com.securosys.fireblocks.configuration.CustomServerProperties;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import com.securosys.fireblocks.datamodel.entities.MessageResponseDocument;
+import com.securosys.fireblocks.datamodel.entities.MessageStatusEntity;
+import com.securosys.fireblocks.datamodel.entities.ResponseType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * The read-modify-write of a status is retried when another writer changed the row in between, detected by the
+ * version column. The retry reads the row again, so a change is applied once, on top of the concurrent one.
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageStatusServiceConflictTest {
+
+    private static final UUID REQUEST_ID = UUID.randomUUID();
+
+    @Mock
+    private MessageStatusRepository jpaRepository;
+    @Mock
+    private MessageResponseRepository responseRepository;
+    @Mock
+    private MessageEnvelopeRepository envelopeRepository;
+    @Mock
+    private StatusChangeRegistry statusChangeRegistry;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MessageStatusService messageStatusService;
+
+    @BeforeEach
+    void setUp() {
+        CustomServerProperties customServerProperties = new CustomServerProperties();
+        messageStatusService = new MessageStatusService(jpaRepository, responseRepository, envelopeRepository,
+                new TsbProperties(), customServerProperties, statusChangeRegistry,
+                new TerminalStatusCache(customServerProperties), transactionManager);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+    }
+
+    @Test
+    @DisplayName("A sync result that lost against a concurrent writer is applied once to the row read again")
+    void updateSyncedStatus_conflict_appliedOnceToFreshRow() {
+        MessageStatusEntity stale = pending(2);
+        // the concurrent writer deferred the next poll in the meantime
+        MessageStatusEntity fresh = pending(3);
+        when(jpaRepository.findByRequestId(REQUEST_ID)).thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(jpaRepository.save(stale)).thenThrow(conflict());
+        when(jpaRepository.save(fresh)).thenReturn(fresh);
+
+        messageStatusService.updateSyncedStatus(REQUEST_ID, MessageStatus.SIGNED, Map.of(0, "signature"));
+
+        assertThat(fresh.getStatus()).isEqualTo(MessageStatus.SIGNED);
+        assertThat(fresh.getNextPollAt()).isNull();
+        assertThat(fresh.getPollAttempts()).isEqualTo(3);
+        assertThat(fresh.getResponseDocument().getSignedMessages())
+                .extracting(MessageResponseDocument.Message::getSignature)
+                .containsExactly("signature");
+        verify(jpaRepository, times(2)).save(any());
+        verify(statusChangeRegistry, times(1)).notifyChanged(REQUEST_ID);
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    @DisplayName("A still pending sync result increments the attempts of the row read again only once")
+    void updateSyncedStatus_conflictWhilePending_countsOnce() {
+        MessageStatusEntity stale = pending(2);
+        MessageStatusEntity fresh = pending(2);
+        when(jpaRepository.findByRequestId(REQUEST_ID)).thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(jpaRepository.save(stale)).thenThrow(conflict());
+        when(jpaRepository.save(fresh)).thenReturn(fresh);
+
+        messageStatusService.updateSyncedStatus(REQUEST_ID, MessageStatus.PENDING_SIGN, Map.of());
+
+        assertThat(fresh.getPollAttempts()).isEqualTo(3);
+        assertThat(fresh.getNextPollAt()).isNotNull();
+        verify(statusChangeRegistry, never()).notifyChanged(any());
+    }
+
+    @Test
+    @DisplayName("A sync result is dropped if the request is no longer pending when it is read again")
+    void updateSyncedStatus_conflictWithFinish_isDropped() {
+        MessageStatusEntity stale = pending(0);
+        // /signRequest finished the request in the meantime
+        MessageStatusEntity finished = pending(0);
+        finished.setStatus(MessageStatus.FAILED);
+        when(jpaRepository.findByRequestId(REQUEST_ID)).thenReturn(Optional.of(stale), Optional.of(finished));
+        when(jpaRepository.save(stale)).thenThrow(conflict());
+
+        messageStatusService.updateSyncedStatus(REQUEST_ID, MessageStatus.SIGNED, Map.of(0, "signature"));
+
+        assertThat(finished.getStatus()).isEqualTo(MessageStatus.FAILED);
+        assertThat(finished.getResponseDocument().getSignedMessages())
+                .extracting(MessageResponseDocument.Message::getSignature)
+                .containsExactly((String) null);
+        verify(jpaRepository, times(1)).save(any());
+        verify(jpaRepository, never()).save(finished);
+        verify(statusChangeRegistry, never()).notifyChanged(any());
+    }
+
+    @Test
+    @DisplayName("A status saved during a concurrent sync is written once to the row read again")
+    void save_conflict_writtenOnce() {
+        MessageStatusEntity stale = pending(1);
+        MessageStatusEntity fresh = pending(2);
+        when(jpaRepository.findByRequestId(REQUEST_ID)).thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(jpaRepository.save(stale)).thenThrow(conflict());
+        when(jpaRepository.save(fresh)).thenReturn(fresh);
+
+        messageStatusService.save(signed(), "");
+
+        assertThat(fresh.getStatus()).isEqualTo(MessageStatus.SIGNED);
+        assertThat(fresh.getPollAttempts()).isZero();
+        assertThat(fresh.getResponseDocument().getSignedMessages())
+                .extracting(MessageResponseDocument.Message::getSignature)
+                .containsExactly("signature");
+        verify(jpaRepository, times(2)).save(any());
+        verify(statusChangeRegistry, times(1)).notifyChanged(REQUEST_ID);
+    }
+
+    @Test
+    @DisplayName("The write gives up after five conflicts in a row")
+    void save_persistentConflict_fails() {
+        when(jpaRepository.findByRequestId(REQUEST_ID)).thenAnswer(invocation -> Optional.of(pending(0)));
+        when(jpaRepository.save(any())).thenThrow(conflict());
+
+        assertThatThrownBy(() -> messageStatusService.save(signed(), ""))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        verify(jpaRepository, times(5)).save(any());
+        verify(transactionManager, never()).commit(any());
+        verify(statusChangeRegistry, never()).notifyChanged(any());
+    }
+
+    private static MessageStatusEntity pending(int pollAttempts) {
+        List<MessageResponseDocument.Message> messages = new ArrayList<>();
+        messages.add(new MessageResponseDocument.Message("message", 0, null, "tsb-1"));
+        return MessageStatusEntity.builder()
+                .id(UUID.randomUUID())
+                .requestId(REQUEST_ID)
+                .type(ResponseType.KEY_LINK_TX_SIGN_RESPONSE)
+                .status(MessageStatus.PENDING_SIGN)
+                .pollAttempts(pollAttempts)
+                .responseDocument(new MessageResponseDocument(messages))
+                .build();
+    }
+
+    private static MessageStatus signed() {
+        return MessageStatus.builder()
+                .requestId(REQUEST_ID)
+                .type(ResponseType.KEY_LINK_TX_SIGN_RESPONSE)
+                .status(MessageStatus.SIGNED)
+                .response(new MessageResponse(List.of(new SignedMessage("message", 0, "signature", "tsb-1"))))
+                .build();
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(MessageStatusEntity.class, REQUEST_ID);
+    }
+}
@@ -0,0 +1,136 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.facade.HsmFacade;
+import com.securosys.fireblocks.business.service.ApprovalTracker;
+import com.securosys.fireblocks.business.service.AuthState;
+import com.securosys.fireblocks.business.service.TsbService;
+import com.securosys.fireblocks.configuration.CustomServerProperties;
+import com.securosys.fireblocks.configuration.SigningExecutorConfiguration;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the maximum number of concurrent pending approvals of one node, with and without virtual threads,
+ * against a TSB stub that keeps every request pending.
+ * <p>
+ * The load is put on the signing worker executor the way the asynchronous signing does: every task signs an entry
+ * and blocks until its approval is decided. The result is logged; run it on Java 21 to compare both modes:
+ * <pre>
+ * ./gradlew :fireblocks-service:test --tests PendingApprovalsCapacityTest -PvirtualThreads -i
+ * </pre>
+ */
+@Slf4j
+class PendingApprovalsCapacityTest {
+
+    private static final int LOAD = 1000;
+
+    private StubTsb tsb;
+    private TsbProperties tsbProperties;
+    private ApprovalTracker approvalTracker;
+    private HsmFacade hsmFacade;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tsb = new StubTsb();
+        AtomicInteger requestIds = new AtomicInteger();
+        tsb.handle("/v1/sign", exchange ->
+                StubTsb.respond(exchange, 200, "{\"signRequestId\":\"req-" + requestIds.incrementAndGet() + "\"}"));
+        tsb.handle("/v1/request/", exchange -> {
+            String requestId = exchange.getRequestURI().getPath().substring("/v1/request/".length());
+            StubTsb.respond(exchange, 200, "{\"id\":\"" + requestId + "\",\"status\":\"PENDING\",\"result\":null}");
+        });
+
+        tsbProperties = new TsbProperties();
+        tsbProperties.getApproval().setPollIntervalMillis(60000);
+        TsbService tsbService = tsb.tsbService(tsbProperties, new AuthState());
+
+        approvalTracker = new ApprovalTracker(tsbService, tsbProperties);
+        hsmFacade = new HsmFacade(tsbService, new CustomServerProperties(), tsbProperties, null, approvalTracker, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // completes the waiting approvals, which frees the workers
+        approvalTracker.shutdown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+        tsb.close();
+    }
+
+    @Test
+    @DisplayName("Platform threads: pending approvals are bounded by the signing worker threads")
+    void platformThreads() throws Exception {
+        Capacity capacity = measure(false, 64);
+
+        assertThat(capacity.pendingApprovals).isEqualTo(64);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    @DisplayName("Virtual threads: a worker per request does not need a platform thread per pending approval")
+    void virtualThreads() throws Exception {
+        Capacity capacity = measure(true, LOAD);
+
+        assertThat(capacity.pendingApprovals).isEqualTo(LOAD);
+        assertThat(capacity.platformThreads).isLessThan(LOAD / 2);
+    }
+
+    private Capacity measure(boolean virtualThreads, int workerThreads) throws InterruptedException {
+        CustomServerProperties properties = new CustomServerProperties();
+        properties.getSigning().setWorkerThreads(workerThreads);
+        properties.getSigning().setWorkerQueueCapacity(LOAD);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        executor = new SigningExecutorConfiguration().signingWorkerExecutor(properties, environment);
+        executor.initialize();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        int threadsBefore = threads.getThreadCount();
+
+        for (int i = 0; i < LOAD; i++) {
+            // submitted, so that the tasks failed by the shutdown of the tracker are not logged
+            executor.submit(() -> hsmFacade.sign("key", null, "00", "EDDSA_ED25519", null, null));
+        }
+
+        // sample until the pending approvals stopped growing for a second
+        int pendingApprovals = 0;
+        long stableSince = System.currentTimeMillis();
+        while (System.currentTimeMillis() - stableSince < 1000) {
+            int pending = approvalTracker.getPendingCount();
+            if (pending > pendingApprovals) {
+                pendingApprovals = pending;
+                stableSince = System.currentTimeMillis();
+            }
+            Thread.sleep(20);
+        }
+
+        Capacity capacity = new Capacity(pendingApprovals, threads.getPeakThreadCount() - threadsBefore);
+        log.info("{} threads, {} signing workers, {} sign requests: {} pending approvals, {} additional platform threads",
+                virtualThreads ? "Virtual" : "Platform", workerThreads, LOAD, capacity.pendingApprovals,
+                capacity.platformThreads);
+        return capacity;
+    }
+
+    private record Capacity(int pendingApprovals, int platformThreads) {
+    }
+}
@@ -0,0 +1,109 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.IntTestBase;
+import com.securosys.fireblocks.business.repository.SchedulerLockRepository;
+import com.securosys.fireblocks.business.service.SchedulerLockService;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import com.securosys.fireblocks.datamodel.entities.SchedulerLockEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulerLockServiceIntTest extends IntTestBase {
+
+    @Autowired
+    private SchedulerLockRepository repository;
+
+    private SchedulerLockService nodeA;
+    private SchedulerLockService nodeB;
+    private String lockName;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new SchedulerLockService(repository, clusterProperties("node-a"));
+        nodeB = new SchedulerLockService(repository, clusterProperties("node-b"));
+        lockName = "test-" + UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("The first node creates the lock and holds it")
+    void tryAcquire_newLock_isCreated() {
+        assertThat(nodeA.tryAcquire(lockName)).isTrue();
+
+        SchedulerLockEntity lock = repository.findById(lockName).orElseThrow();
+        assertThat(lock.getLockedBy()).isEqualTo("node-a");
+        assertThat(lock.getLockedUntil()).isAfter(new Date());
+    }
+
+    @Test
+    @DisplayName("Another node does not get a lease that is still valid")
+    void tryAcquire_heldByOtherNode_isRefused() {
+        assertThat(nodeA.tryAcquire(lockName)).isTrue();
+
+        assertThat(nodeB.tryAcquire(lockName)).isFalse();
+        assertThat(repository.findById(lockName).orElseThrow().getLockedBy()).isEqualTo("node-a");
+    }
+
+    @Test
+    @DisplayName("The holder extends its lease on acquire and on renewal")
+    void renew_extendsLease() {
+        assertThat(nodeA.tryAcquire(lockName)).isTrue();
+        expire(lockName, 1000);
+        Date before = repository.findById(lockName).orElseThrow().getLockedUntil();
+
+        nodeA.renewHeldLocks();
+
+        Date after = repository.findById(lockName).orElseThrow().getLockedUntil();
+        assertThat(after).isAfter(before);
+        assertThat(nodeA.tryAcquire(lockName)).isTrue();
+        assertThat(nodeB.tryAcquire(lockName)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Another node takes over an expired lease, the former holder loses it on renewal")
+    void tryAcquire_expiredLease_isStolen() {
+        assertThat(nodeA.tryAcquire(lockName)).isTrue();
+        expire(lockName, -1000);
+
+        assertThat(nodeB.tryAcquire(lockName)).isTrue();
+        assertThat(repository.findById(lockName).orElseThrow().getLockedBy()).isEqualTo("node-b");
+
+        nodeA.renewHeldLocks();
+        assertThat(repository.findById(lockName).orElseThrow().getLockedBy()).isEqualTo("node-b");
+        assertThat(nodeA.tryAcquire(lockName)).isFalse();
+    }
+
+    @Test
+    @DisplayName("A released lease is taken over right away")
+    void releaseAll_letsOtherNodeAcquire() {
+        assertThat(nodeA.tryAcquire(lockName)).isTrue();
+
+        // a released lease ends at the time of release, so it is free within the same millisecond
+        nodeA.releaseAll();
+
+        assertThat(nodeB.tryAcquire(lockName)).isTrue();
+    }
+
+    private void expire(String name, long millisFromNow) {
+        SchedulerLockEntity lock = repository.findById(name).orElseThrow();
+        lock.setLockedUntil(new Date(System.currentTimeMillis() + millisFromNow));
+        repository.save(lock);
+    }
+
+    private static TsbProperties clusterProperties(String nodeId) {
+        TsbProperties tsbProperties = new TsbProperties();
+        tsbProperties.getCluster().setEnabled(true);
+        tsbProperties.getCluster().setNodeId(nodeId);
+        tsbProperties.getCluster().setLeaseSeconds(60);
+        return tsbProperties;
+    }
+}
@@ -0,0 +1,159 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.dto.customServer.Algorithm;
+import com.securosys.fireblocks.business.dto.customServer.Message;
+import com.securosys.fireblocks.business.dto.customServer.MessageEnvelope;
+import com.securosys.fireblocks.business.dto.customServer.MessagePayload;
+import com.securosys.fireblocks.business.dto.customServer.MessageStatus;
+import com.securosys.fireblocks.business.dto.customServer.MessageToSign;
+import com.securosys.fireblocks.business.dto.customServer.PayloadSignatureData;
+import com.securosys.fireblocks.business.dto.customServer.SignedMessage;
+import com.securosys.fireblocks.business.dto.customServer.TransportMetadata;
+import com.securosys.fireblocks.business.dto.response.RequestStatusResponseDto;
+import com.securosys.fireblocks.business.exceptions.BusinessException;
+import com.securosys.fireblocks.business.exceptions.BusinessReason;
+import com.securosys.fireblocks.business.facade.HsmFacade;
+import com.securosys.fireblocks.business.service.MessageEnvelopeService;
+import com.securosys.fireblocks.business.service.MessageStatusService;
+import com.securosys.fireblocks.business.service.SigningService;
+import com.securosys.fireblocks.business.util.JsonUtil;
+import com.securosys.fireblocks.business.util.MessagePayloadParser;
+import com.securosys.fireblocks.configuration.CustomServerProperties;
+import com.securosys.fireblocks.datamodel.entities.RequestType;
+import com.securosys.fireblocks.datamodel.entities.ResponseType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SigningServiceEntriesTest {
+
+    private static final UUID REQUEST_ID = UUID.randomUUID();
+
+    @Mock
+    private HsmFacade hsmFacade;
+    @Mock
+    private MessageStatusService statusService;
+    @Mock
+    private MessageEnvelopeService envelopeService;
+    @Mock
+    private JsonUtil jsonUtil;
+    @Mock
+    private MessagePayloadParser payloadParser;
+    @Mock
+    private TaskExecutor signingWorkerExecutor;
+    @Mock
+    private TaskExecutor signingEnvelopeExecutor;
+
+    private SigningService signingService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CustomServerProperties properties = new CustomServerProperties();
+        properties.setVerifySignatures(false);
+        signingService = new SigningService(hsmFacade, properties, statusService, envelopeService, jsonUtil,
+                payloadParser, signingWorkerExecutor, signingEnvelopeExecutor);
+
+        MessagePayload payload = new MessagePayload();
+        payload.setType(RequestType.KEY_LINK_TX_SIGN_REQUEST);
+        payload.setAlgorithm(Algorithm.ECDSA_SECP256K1);
+        payload.setSigningDeviceKeyId("key");
+        payload.setMessagesToSign(List.of(
+                new MessageToSign("aa", 0),
+                new MessageToSign("bb", 1),
+                new MessageToSign("cc", 2)));
+        when(payloadParser.parse(any(), any(), anyBoolean()))
+                .thenReturn(new MessagePayloadParser.ParsedPayload(payload, "{}"));
+
+        MessageEnvelope envelope = new MessageEnvelope(
+                new Message(new PayloadSignatureData("00", "service"), "{}"),
+                new TransportMetadata(REQUEST_ID, RequestType.KEY_LINK_TX_SIGN_REQUEST));
+        when(hsmFacade.isLicensed()).thenReturn(false);
+        when(envelopeService.findAllByRequestIds(List.of(REQUEST_ID))).thenReturn(List.of(envelope));
+        when(statusService.findByRequestId(REQUEST_ID)).thenReturn(Optional.of(MessageStatus.builder()
+                .type(ResponseType.KEY_LINK_TX_SIGN_RESPONSE)
+                .status(MessageStatus.PENDING_SIGN)
+                .requestId(REQUEST_ID)
+                .build()));
+    }
+
+    @Test
+    @DisplayName("A failed entry is FAILED on its own, the accepted entries keep their TSB request ids")
+    void failedEntry_keepsAcceptedEntries() {
+        when(hsmFacade.signAsync(eq("key"), any(), eq("aa"), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(response("req-0", "EXECUTED", "c2ln")));
+        when(hsmFacade.signAsync(eq("key"), any(), eq("bb"), any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new BusinessException("Too many concurrent TSB calls", BusinessReason.ERROR_TSB_UNAVAILABLE)));
+        when(hsmFacade.signAsync(eq("key"), any(), eq("cc"), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(response("req-2", "PENDING", null)));
+
+        signingService.signMessage(REQUEST_ID);
+
+        MessageStatus saved = saved();
+        assertThat(saved.getStatus()).isEqualTo(MessageStatus.FAILED);
+        assertThat(saved.getResponse().getSignedMessages())
+                .extracting(SignedMessage::getIndex, SignedMessage::getTsbRequestId)
+                .containsExactly(
+                        tuple(0, "req-0"),
+                        tuple(1, null),
+                        tuple(2, "req-2"));
+        assertThat(saved.getResponse().getSignedMessages().get(0).getSignature()).isNotEmpty();
+        assertThat(saved.getResponse().getSignedMessages().get(1).getSignature()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("The status of the request is aggregated from all entries")
+    void allEntriesAccepted_aggregated() {
+        when(hsmFacade.signAsync(eq("key"), any(), eq("aa"), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(response("req-0", "EXECUTED", "c2ln")));
+        when(hsmFacade.signAsync(eq("key"), any(), eq("bb"), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(response("req-1", "PENDING", null)));
+        when(hsmFacade.signAsync(eq("key"), any(), eq("cc"), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(response("req-2", "EXECUTED", "c2ln")));
+
+        signingService.signMessage(REQUEST_ID);
+
+        MessageStatus saved = saved();
+        assertThat(saved.getStatus()).isEqualTo(MessageStatus.PENDING_SIGN);
+        assertThat(saved.getResponse().getSignedMessages())
+                .extracting(SignedMessage::getTsbRequestId)
+                .containsExactly("req-0", "req-1", "req-2");
+    }
+
+    private MessageStatus saved() {
+        ArgumentCaptor<MessageStatus> status = ArgumentCaptor.forClass(MessageStatus.class);
+        verify(statusService).save(status.capture(), eq(""));
+        return status.getValue();
+    }
+
+    private static RequestStatusResponseDto response(String id, String status, String result) {
+        RequestStatusResponseDto response = new RequestStatusResponseDto();
+        response.setId(id);
+        response.setStatus(status);
+        response.setResult(result);
+        return response;
+    }
+}
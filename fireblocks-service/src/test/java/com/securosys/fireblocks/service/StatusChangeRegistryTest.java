@@ -0,0 +1,99 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.service.StatusChangeRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatusChangeRegistryTest {
+
+    private static final UUID REQUEST_A = UUID.randomUUID();
+    private static final UUID REQUEST_B = UUID.randomUUID();
+
+    private StatusChangeRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new StatusChangeRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    @DisplayName("A listener is called once, for the first change of any of its requests")
+    void notifyChanged_callsListenerOnce() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch called = new CountDownLatch(1);
+        registry.register(List.of(REQUEST_A, REQUEST_B), () -> {
+            calls.incrementAndGet();
+            called.countDown();
+        });
+
+        registry.notifyChanged(REQUEST_B);
+        registry.notifyChanged(REQUEST_A);
+        registry.notifyChanged(REQUEST_B);
+
+        assertThat(called.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Changes of other requests are not reported")
+    void notifyChanged_otherRequest_isIgnored() throws Exception {
+        CountDownLatch called = new CountDownLatch(1);
+        registry.register(List.of(REQUEST_A), called::countDown);
+
+        registry.notifyChanged(REQUEST_B);
+
+        assertThat(called.await(100, TimeUnit.MILLISECONDS)).isFalse();
+    }
+
+    @Test
+    @DisplayName("A removed registration is not called and no longer watched")
+    void unregister_stopsNotifications() throws Exception {
+        CountDownLatch called = new CountDownLatch(1);
+        Runnable unregister = registry.register(List.of(REQUEST_A, REQUEST_B), called::countDown);
+        assertThat(registry.getWatchedRequestCount()).isEqualTo(2);
+
+        unregister.run();
+        registry.notifyChanged(REQUEST_A);
+
+        assertThat(registry.getWatchedRequestCount()).isZero();
+        assertThat(called.await(100, TimeUnit.MILLISECONDS)).isFalse();
+    }
+
+    @Test
+    @DisplayName("A recheck runs periodically until it is stopped")
+    void recheckEvery_runsUntilStopped() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch ranTwice = new CountDownLatch(2);
+        Runnable stop = registry.recheckEvery(10, () -> {
+            runs.incrementAndGet();
+            ranTwice.countDown();
+        });
+
+        assertThat(ranTwice.await(5, TimeUnit.SECONDS)).isTrue();
+        stop.run();
+        Thread.sleep(50);
+        int stoppedAt = runs.get();
+        Thread.sleep(100);
+
+        assertThat(runs).hasValue(stoppedAt);
+    }
+}
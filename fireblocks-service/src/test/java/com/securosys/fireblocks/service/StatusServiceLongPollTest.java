@@ -0,0 +1,142 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.dto.customServer.MessageStatus;
+import com.securosys.fireblocks.business.dto.customServer.MessagesStatusRequest;
+import com.securosys.fireblocks.business.dto.customServer.MessagesStatusResponse;
+import com.securosys.fireblocks.business.repository.MessageStatusRepository;
+import com.securosys.fireblocks.business.service.MessageStatusService;
+import com.securosys.fireblocks.business.service.StatusChangeRegistry;
+import com.securosys.fireblocks.business.service.StatusService;
+import com.securosys.fireblocks.business.service.TerminalStatusCache;
+import com.securosys.fireblocks.business.service.TsbCircuitBreaker;
+import com.securosys.fireblocks.business.service.TsbService;
+import com.securosys.fireblocks.configuration.CustomServerProperties;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import com.securosys.fireblocks.datamodel.entities.MessageStatusEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatusServiceLongPollTest {
+
+    private static final UUID REQUEST_ID = UUID.randomUUID();
+
+    @Mock
+    private MessageStatusRepository repository;
+    @Mock
+    private TsbService tsbService;
+    @Mock
+    private MessageStatusService messageStatusService;
+    @Mock
+    private TsbCircuitBreaker tsbCircuitBreaker;
+    @Mock
+    private TaskExecutor statusSyncExecutor;
+
+    private CustomServerProperties customServerProperties;
+    private StatusChangeRegistry statusChangeRegistry;
+    private StatusService statusService;
+
+    @BeforeEach
+    void setUp() {
+        customServerProperties = new CustomServerProperties();
+        statusChangeRegistry = new StatusChangeRegistry();
+        statusService = new StatusService(repository, tsbService, messageStatusService, new TsbProperties(),
+                customServerProperties, statusChangeRegistry, new TerminalStatusCache(customServerProperties),
+                tsbCircuitBreaker, statusSyncExecutor);
+
+        MessageStatusEntity entity = new MessageStatusEntity();
+        entity.setRequestId(REQUEST_ID);
+        when(repository.findByRequestIdIn(List.of(REQUEST_ID))).thenReturn(List.of(entity));
+    }
+
+    @AfterEach
+    void tearDown() {
+        statusChangeRegistry.shutdown();
+    }
+
+    @Test
+    @DisplayName("Without pending requests the result is set right away")
+    void longPoll_nothingPending_returnsImmediately() {
+        when(messageStatusService.toDomainList(any())).thenReturn(List.of(status(MessageStatus.SIGNED)));
+
+        DeferredResult<MessagesStatusResponse> result = statusService.getStatusesLongPoll(request(), 30);
+
+        assertThat(result.hasResult()).isTrue();
+        assertThat(statuses(result)).containsExactly(MessageStatus.SIGNED);
+        assertThat(statusChangeRegistry.getWatchedRequestCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("A status change on this node ends the wait with the new status")
+    void longPoll_localChange_completes() throws Exception {
+        customServerProperties.setLongPollRecheckSeconds(0);
+        when(messageStatusService.toDomainList(any()))
+                .thenReturn(List.of(status(MessageStatus.PENDING_SIGN)))
+                .thenReturn(List.of(status(MessageStatus.SIGNED)));
+
+        DeferredResult<MessagesStatusResponse> result = statusService.getStatusesLongPoll(request(), 30);
+        CountDownLatch completed = resultLatch(result);
+        assertThat(result.hasResult()).isFalse();
+
+        statusChangeRegistry.notifyChanged(REQUEST_ID);
+
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(statuses(result)).containsExactly(MessageStatus.SIGNED);
+    }
+
+    @Test
+    @DisplayName("A status change made by another node is found by the periodic recheck")
+    void longPoll_changeOnOtherNode_foundByRecheck() throws Exception {
+        customServerProperties.setLongPollRecheckSeconds(1);
+        when(messageStatusService.toDomainList(any()))
+                .thenReturn(List.of(status(MessageStatus.PENDING_SIGN)))
+                .thenReturn(List.of(status(MessageStatus.FAILED)));
+
+        DeferredResult<MessagesStatusResponse> result = statusService.getStatusesLongPoll(request(), 30);
+        CountDownLatch completed = resultLatch(result);
+
+        // the first recheck runs after one second, found without waiting for a second one
+        assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(statuses(result)).containsExactly(MessageStatus.FAILED);
+        verify(repository, times(2)).findByRequestIdIn(List.of(REQUEST_ID));
+    }
+
+    private static CountDownLatch resultLatch(DeferredResult<MessagesStatusResponse> result) {
+        CountDownLatch completed = new CountDownLatch(1);
+        result.setResultHandler(value -> completed.countDown());
+        return completed;
+    }
+
+    private static List<String> statuses(DeferredResult<MessagesStatusResponse> result) {
+        return ((MessagesStatusResponse) result.getResult()).getStatuses().stream()
+                .map(MessageStatus::getStatus)
+                .toList();
+    }
+
+    private static MessagesStatusRequest request() {
+        return new MessagesStatusRequest(List.of(REQUEST_ID));
+    }
+
+    private static MessageStatus status(String status) {
+        return MessageStatus.builder().requestId(REQUEST_ID).status(status).build();
+    }
+}
@@ -0,0 +1,85 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.service.AuthState;
+import com.securosys.fireblocks.business.service.MtlsClientFactory;
+import com.securosys.fireblocks.business.service.TsbCircuitBreaker;
+import com.securosys.fireblocks.business.service.TsbEndpointPool;
+import com.securosys.fireblocks.business.service.TsbHttpClientFactory;
+import com.securosys.fireblocks.business.service.TsbRetryPolicy;
+import com.securosys.fireblocks.business.service.TsbService;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * A TSB REST API on a local port, answering with the handlers registered per path, and the {@link TsbService}
+ * wired to it without mTLS.
+ */
+class StubTsb implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<TsbHttpClientFactory> clientFactories = new ArrayList<>();
+
+    StubTsb() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    void handle(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+    }
+
+    /**
+     * A TsbService calling this stub, with the collaborators it would get in the application.
+     */
+    TsbService tsbService(TsbProperties tsbProperties, AuthState authState) {
+        return tsbService(tsbProperties, authState, new TsbEndpointPool(tsbProperties));
+    }
+
+    TsbService tsbService(TsbProperties tsbProperties, AuthState authState, TsbEndpointPool endpointPool) {
+        if (tsbProperties.getTsbRestApi() == null) {
+            tsbProperties.setTsbRestApi(url());
+        }
+        TsbHttpClientFactory clientFactory = new TsbHttpClientFactory(tsbProperties, mock(MtlsClientFactory.class));
+        clientFactories.add(clientFactory);
+        return new TsbService(tsbProperties, clientFactory, authState, new TsbCircuitBreaker(tsbProperties, endpointPool),
+                new TsbRetryPolicy(tsbProperties), endpointPool);
+    }
+
+    static void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        clientFactories.forEach(TsbHttpClientFactory::close);
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,126 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.dto.customServer.MessageStatus;
+import com.securosys.fireblocks.business.service.TerminalStatusCache;
+import com.securosys.fireblocks.configuration.CustomServerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TerminalStatusCacheTest {
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private CustomServerProperties properties;
+    private TerminalStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CustomServerProperties();
+        properties.getStatusCache().setMaxEntries(2);
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(invocation -> now.get());
+        cache = new TerminalStatusCache(properties, clock);
+    }
+
+    @Test
+    @DisplayName("Final statuses are cached, pending ones are not")
+    void put_onlyFinalStatuses() {
+        MessageStatus signed = status(MessageStatus.SIGNED);
+        MessageStatus failed = status(MessageStatus.FAILED);
+        MessageStatus pending = status(MessageStatus.PENDING_SIGN);
+
+        cache.put(signed, cache.generation());
+        cache.put(failed, cache.generation());
+        cache.put(pending, cache.generation());
+
+        assertThat(cache.get(signed.getRequestId())).isSameAs(signed);
+        assertThat(cache.get(failed.getRequestId())).isSameAs(failed);
+        assertThat(cache.get(pending.getRequestId())).isNull();
+    }
+
+    @Test
+    @DisplayName("The least recently used entry is evicted once maxEntries is exceeded")
+    void put_overCapacity_evictsLeastRecentlyUsed() {
+        MessageStatus first = status(MessageStatus.SIGNED);
+        MessageStatus second = status(MessageStatus.SIGNED);
+        MessageStatus third = status(MessageStatus.SIGNED);
+        cache.put(first, cache.generation());
+        cache.put(second, cache.generation());
+
+        // makes second the least recently used entry
+        cache.get(first.getRequestId());
+        cache.put(third, cache.generation());
+
+        assertThat(cache.get(second.getRequestId())).isNull();
+        assertThat(cache.get(first.getRequestId())).isSameAs(first);
+        assertThat(cache.get(third.getRequestId())).isSameAs(third);
+        assertThat(cache.getStatistics()).containsEntry("size", 2L).containsEntry("evictions", 1L);
+    }
+
+    @Test
+    @DisplayName("An entry expires after ttlSeconds")
+    void get_afterTtl_isMiss() {
+        properties.getStatusCache().setTtlSeconds(1);
+        MessageStatus signed = status(MessageStatus.SIGNED);
+        cache.put(signed, cache.generation());
+        assertThat(cache.get(signed.getRequestId())).isSameAs(signed);
+
+        now.addAndGet(TimeUnit.SECONDS.toMillis(1) + 1);
+
+        assertThat(cache.get(signed.getRequestId())).isNull();
+        assertThat(cache.getStatistics()).containsEntry("size", 0L);
+    }
+
+    @Test
+    @DisplayName("A value read before an invalidation is not cached")
+    void put_afterInvalidation_isDropped() {
+        MessageStatus signed = status(MessageStatus.SIGNED);
+        long readGeneration = cache.generation();
+
+        cache.invalidate(UUID.randomUUID());
+        cache.put(signed, readGeneration);
+
+        assertThat(cache.get(signed.getRequestId())).isNull();
+
+        cache.put(signed, cache.generation());
+        assertThat(cache.get(signed.getRequestId())).isSameAs(signed);
+    }
+
+    @Test
+    @DisplayName("An invalidated request is read from the database again")
+    void invalidate_removesEntry() {
+        MessageStatus signed = status(MessageStatus.SIGNED);
+        cache.put(signed, cache.generation());
+
+        cache.invalidate(signed.getRequestId());
+
+        assertThat(cache.get(signed.getRequestId())).isNull();
+    }
+
+    @Test
+    @DisplayName("maxEntries 0 disables the cache")
+    void put_disabled_cachesNothing() {
+        properties.getStatusCache().setMaxEntries(0);
+        MessageStatus signed = status(MessageStatus.SIGNED);
+
+        cache.put(signed, cache.generation());
+
+        assertThat(cache.get(signed.getRequestId())).isNull();
+    }
+
+    private static MessageStatus status(String status) {
+        return MessageStatus.builder().requestId(UUID.randomUUID()).status(status).build();
+    }
+}
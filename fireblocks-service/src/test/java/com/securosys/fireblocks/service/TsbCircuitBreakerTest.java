@@ -0,0 +1,263 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.exceptions.BusinessException;
+import com.securosys.fireblocks.business.exceptions.BusinessReason;
+import com.securosys.fireblocks.business.service.TsbCircuitBreaker;
+import com.securosys.fireblocks.business.service.TsbEndpointPool;
+import com.securosys.fireblocks.business.service.TsbOperation;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TsbCircuitBreakerTest {
+
+    private static final String TSB = "https://tsb-1";
+    private static final String OTHER_TSB = "https://tsb-2";
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private TsbProperties tsbProperties;
+    private TsbCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        tsbProperties = new TsbProperties();
+        tsbProperties.getCircuitBreaker().setFailureThreshold(3);
+        tsbProperties.getCircuitBreaker().setOpenSeconds(1);
+        tsbProperties.getCircuitBreaker().setSignMaxConcurrentCalls(2);
+        tsbProperties.getCircuitBreaker().setBulkheadMaxWaitMillis(0);
+        tsbProperties.setTsbRestApi(TSB);
+        tsbProperties.setTsbRestApis(List.of(OTHER_TSB));
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(invocation -> now.get());
+        circuitBreaker = new TsbCircuitBreaker(tsbProperties, new TsbEndpointPool(tsbProperties), clock);
+    }
+
+    @Test
+    @DisplayName("The circuit opens after failureThreshold consecutive failures")
+    void opensAtFailureThreshold() {
+        fail(TsbOperation.REQUEST_STATUS, 2);
+        assertThat(circuitBreaker.isOpen(TSB, TsbOperation.REQUEST_STATUS)).isFalse();
+
+        fail(TsbOperation.REQUEST_STATUS, 1);
+
+        assertThat(circuitBreaker.isOpen(TSB, TsbOperation.REQUEST_STATUS)).isTrue();
+        assertRefused(TsbOperation.REQUEST_STATUS);
+        // the circuits of the other operations are independent
+        assertThat(circuitBreaker.isOpen(TSB, TsbOperation.SIGN)).isFalse();
+    }
+
+    @Test
+    @DisplayName("The circuits of the endpoints are independent")
+    void circuitsPerEndpoint() {
+        fail(TsbOperation.REQUEST_STATUS, 3);
+
+        assertThat(circuitBreaker.isOpen(OTHER_TSB, TsbOperation.REQUEST_STATUS)).isFalse();
+        circuitBreaker.acquire(OTHER_TSB, TsbOperation.REQUEST_STATUS).completed(200);
+        // the operation is available as long as one endpoint is
+        assertThat(circuitBreaker.isOpen(TsbOperation.REQUEST_STATUS)).isFalse();
+
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.acquire(OTHER_TSB, TsbOperation.REQUEST_STATUS).failed();
+        }
+
+        assertThat(circuitBreaker.isOpen(TsbOperation.REQUEST_STATUS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("The bulkhead of an operation is shared by all endpoints")
+    void bulkheadPerOperation() {
+        circuitBreaker.acquire(TSB, TsbOperation.SIGN);
+        circuitBreaker.acquire(OTHER_TSB, TsbOperation.SIGN);
+
+        assertThatThrownBy(() -> circuitBreaker.acquire(OTHER_TSB, TsbOperation.SIGN))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("A success resets the consecutive failures")
+    void successResetsFailures() {
+        fail(TsbOperation.REQUEST_STATUS, 2);
+        circuitBreaker.acquire(TSB, TsbOperation.REQUEST_STATUS).completed(200);
+        fail(TsbOperation.REQUEST_STATUS, 2);
+
+        assertThat(circuitBreaker.isOpen(TSB, TsbOperation.REQUEST_STATUS)).isFalse();
+    }
+
+    @Test
+    @DisplayName("HTTP 5xx answers count as failures, 4xx answers do not")
+    void serverErrorsAreFailures() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.acquire(TSB, TsbOperation.REQUEST_STATUS).completed(404);
+        }
+        assertThat(circuitBreaker.isOpen(TSB, TsbOperation.REQUEST_STATUS)).isFalse();
+
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.acquire(TSB, TsbOperation.REQUEST_STATUS).completed(503);
+        }
+        assertThat(circuitBreaker.isOpen(TSB, TsbOperation.REQUEST_STATUS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("After openSeconds a single trial call is let through and closes the circuit on success")
+    void halfOpenTrialSucceeds() {
+        fail(TsbOperation.REQUEST_STATUS, 3);
+        waitForOpenPeriod();
+
+        TsbCircuitBreaker.Permit trial = circuitBreaker.acquire(TSB, TsbOperation.REQUEST_STATUS);
+        assertThat(circuitBreaker.isOpen(TSB, TsbOperation.REQUEST_STATUS)).isTrue();
+        assertRefused(TsbOperation.REQUEST_STATUS);
+
+        trial.completed(200);
+
+        assertThat(circuitBreaker.isOpen(TSB, TsbOperation.REQUEST_STATUS)).isFalse();
+        assertThat(state(TsbOperation.REQUEST_STATUS)).isEqualTo("CLOSED");
+        circuitBreaker.acquire(TSB, TsbOperation.REQUEST_STATUS).completed(200);
+    }
+
+    @Test
+    @DisplayName("A failed trial call opens the circuit for another period")
+    void halfOpenTrialFails() {
+        fail(TsbOperation.REQUEST_STATUS, 3);
+        waitForOpenPeriod();
+
+        circuitBreaker.acquire(TSB, TsbOperation.REQUEST_STATUS).failed();
+
+        assertThat(state(TsbOperation.REQUEST_STATUS)).isEqualTo("OPEN");
+        assertRefused(TsbOperation.REQUEST_STATUS);
+    }
+
+    @Test
+    @DisplayName("Without a wait time, calls beyond the maximum in flight are refused until a permit is completed")
+    void bulkheadRejectsExcessCalls() {
+        TsbCircuitBreaker.Permit first = circuitBreaker.acquire(TSB, TsbOperation.SIGN);
+        circuitBreaker.acquire(TSB, TsbOperation.SIGN);
+
+        assertRefused(TsbOperation.SIGN);
+        assertThat(sign().get("callsInFlight")).isEqualTo(2);
+
+        first.completed(200);
+        // completing a permit twice does not free a second slot
+        first.completed(200);
+
+        circuitBreaker.acquire(TSB, TsbOperation.SIGN);
+        assertRefused(TsbOperation.SIGN);
+    }
+
+    @Test
+    @DisplayName("A call beyond the maximum in flight waits until a permit is completed")
+    void bulkheadWaitsForFreeSlot() throws Exception {
+        tsbProperties.getCircuitBreaker().setBulkheadMaxWaitMillis(5000);
+        TsbCircuitBreaker.Permit first = circuitBreaker.acquire(TSB, TsbOperation.SIGN);
+        circuitBreaker.acquire(TSB, TsbOperation.SIGN);
+
+        CompletableFuture<TsbCircuitBreaker.Permit> waiting = circuitBreaker.acquireAsync(TSB, TsbOperation.SIGN);
+        assertThat(waiting).isNotDone();
+
+        first.completed(200);
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(sign().get("callsInFlight")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Waiting calls are admitted in order, one per completed permit")
+    void bulkheadAdmitsWaitersInOrder() throws Exception {
+        tsbProperties.getCircuitBreaker().setBulkheadMaxWaitMillis(5000);
+        TsbCircuitBreaker.Permit first = circuitBreaker.acquire(TSB, TsbOperation.SIGN);
+        TsbCircuitBreaker.Permit second = circuitBreaker.acquire(TSB, TsbOperation.SIGN);
+        CompletableFuture<TsbCircuitBreaker.Permit> third = circuitBreaker.acquireAsync(TSB, TsbOperation.SIGN);
+        CompletableFuture<TsbCircuitBreaker.Permit> fourth = circuitBreaker.acquireAsync(TSB, TsbOperation.SIGN);
+
+        first.completed(200);
+
+        third.get(5, TimeUnit.SECONDS);
+        assertThat(fourth).isNotDone();
+
+        second.completed(200);
+
+        fourth.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("A call that finds no free slot within bulkheadMaxWaitMillis is refused")
+    void bulkheadWaitTimesOut() {
+        tsbProperties.getCircuitBreaker().setBulkheadMaxWaitMillis(50);
+        circuitBreaker.acquire(TSB, TsbOperation.SIGN);
+        circuitBreaker.acquire(TSB, TsbOperation.SIGN);
+
+        assertRefused(TsbOperation.SIGN);
+        assertThat(sign().get("callsInFlight")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A call refused by the open circuit does not occupy a bulkhead slot")
+    void refusedCallFreesBulkhead() {
+        fail(TsbOperation.SIGN, 3);
+
+        assertRefused(TsbOperation.SIGN);
+        assertRefused(TsbOperation.SIGN);
+
+        assertThat(sign().get("callsInFlight")).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("A disabled circuit breaker admits all calls")
+    void disabled() {
+        tsbProperties.getCircuitBreaker().setEnabled(false);
+
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.acquire(TSB, TsbOperation.SIGN).failed();
+        }
+
+        assertThat(circuitBreaker.isOpen(TSB, TsbOperation.SIGN)).isFalse();
+        assertThat(sign().get("callsInFlight")).isEqualTo(0);
+    }
+
+    private void fail(TsbOperation operation, int times) {
+        for (int i = 0; i < times; i++) {
+            circuitBreaker.acquire(TSB, operation).failed();
+        }
+    }
+
+    private void assertRefused(TsbOperation operation) {
+        assertThatThrownBy(() -> circuitBreaker.acquire(TSB, operation))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getReason())
+                .isEqualTo(BusinessReason.ERROR_TSB_UNAVAILABLE);
+    }
+
+    private void waitForOpenPeriod() {
+        now.addAndGet(TimeUnit.SECONDS.toMillis(tsbProperties.getCircuitBreaker().getOpenSeconds()) + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String state(TsbOperation operation) {
+        Map<String, Object> circuits = (Map<String, Object>) statistics(operation).get("circuits");
+        return (String) ((Map<String, Object>) circuits.get(TSB)).get("state");
+    }
+
+    private Map<String, Object> sign() {
+        return statistics(TsbOperation.SIGN);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> statistics(TsbOperation operation) {
+        return (Map<String, Object>) circuitBreaker.getStatistics().get(operation.name());
+    }
+}
@@ -0,0 +1,196 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.service.TsbEndpointPool;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TsbEndpointPoolTest {
+
+    private TsbProperties tsbProperties;
+    private TsbEndpointPool pool;
+    private TsbEndpointPool.Endpoint first;
+    private TsbEndpointPool.Endpoint second;
+
+    @BeforeEach
+    void setUp() {
+        tsbProperties = new TsbProperties();
+        tsbProperties.setTsbRestApi("https://tsb-1");
+        tsbProperties.setTsbRestApis(List.of("https://tsb-2"));
+        tsbProperties.getEndpoints().setLatencyWeight(0.5);
+        tsbProperties.getEndpoints().setUnhealthyAfterFailures(2);
+        tsbProperties.getEndpoints().setMaxPinnedRequests(2);
+        pool = new TsbEndpointPool(tsbProperties);
+        first = pool.getEndpoints().get(0);
+        second = pool.getEndpoints().get(1);
+    }
+
+    @Test
+    @DisplayName("The endpoints are tsbRestApi followed by tsbRestApis, and keep their state by URL")
+    void getEndpoints() {
+        assertThat(pool.getEndpoints()).extracting(TsbEndpointPool.Endpoint::getUrl)
+                .containsExactly("https://tsb-1", "https://tsb-2");
+        assertThat(pool.getEndpoints().get(0)).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Endpoints without samples are tried first, then the one with the lowest latency")
+    void select_lowestLatency() {
+        call(first, 100);
+        assertThat(pool.select(null, null)).isSameAs(second);
+
+        call(second, 150);
+        assertThat(pool.select(null, null)).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("The latency is the moving average of the samples, weighted by latencyWeight")
+    void select_movingAverage() {
+        call(first, 100);
+        call(second, 180);
+        call(first, 300);
+
+        assertThat(latencyMillis(first)).isEqualTo(200L);
+        assertThat(pool.select(null, null)).isSameAs(second);
+    }
+
+    @Test
+    @DisplayName("The latency is multiplied by the calls in flight")
+    void select_weightedByCallsInFlight() {
+        call(first, 100);
+        call(second, 150);
+
+        pool.started(first);
+
+        assertThat(pool.select(null, null)).isSameAs(second);
+        assertThat(statistics(first)).containsEntry("inFlight", 1);
+    }
+
+    @Test
+    @DisplayName("An endpoint is skipped after unhealthyAfterFailures failures in a row and back with a successful probe")
+    void select_skipsUnhealthy() {
+        call(first, 10);
+        call(second, 100);
+
+        pool.started(first);
+        pool.failed(first);
+        assertThat(first.isHealthy()).isTrue();
+        pool.started(first);
+        pool.failed(first);
+
+        assertThat(first.isHealthy()).isFalse();
+        assertThat(pool.select(null, null)).isSameAs(second);
+
+        pool.probed(first, true, 10);
+
+        assertThat(first.isHealthy()).isTrue();
+        assertThat(pool.select(null, null)).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("If no endpoint is healthy, all are tried")
+    void select_noneHealthy() {
+        pool.probed(first, false, 0);
+        pool.probed(first, false, 0);
+        pool.probed(second, false, 0);
+        pool.probed(second, false, 0);
+
+        assertThat(pool.select(null, null)).isSameAs(first);
+        assertThat(pool.select(null, first)).isSameAs(second);
+    }
+
+    @Test
+    @DisplayName("The endpoint the previous attempt failed on is avoided")
+    void select_avoidsPreviousAttempt() {
+        call(first, 10);
+        call(second, 100);
+
+        assertThat(pool.select(null, first)).isSameAs(second);
+    }
+
+    @Test
+    @DisplayName("Status polls go to the endpoint the request is pinned to while it is healthy")
+    void select_pinned() {
+        call(first, 10);
+        call(second, 100);
+        pool.pin("req-1", second);
+
+        assertThat(pool.select("req-1", null)).isSameAs(second);
+        assertThat(pool.select("req-2", null)).isSameAs(first);
+
+        pool.probed(second, false, 0);
+        pool.probed(second, false, 0);
+
+        assertThat(pool.select("req-1", null)).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("The least recently used pin is evicted once maxPinnedRequests is exceeded")
+    void pin_leastRecentlyUsedEvicted() {
+        call(first, 10);
+        call(second, 100);
+        pool.pin("req-1", second);
+        pool.pin("req-2", second);
+
+        // makes req-2 the least recently used pin
+        pool.select("req-1", null);
+        pool.pin("req-3", second);
+
+        assertThat(pool.select("req-1", null)).isSameAs(second);
+        assertThat(pool.select("req-3", null)).isSameAs(second);
+        assertThat(pool.select("req-2", null)).isSameAs(first);
+        assertThat(pool.getStatistics())
+                .containsEntry("pinnedRequests", 2)
+                .containsEntry("pinEvictions", 1L);
+    }
+
+    @Test
+    @DisplayName("Nothing is pinned with a single endpoint")
+    void pin_singleEndpoint() {
+        tsbProperties.setTsbRestApis(List.of());
+
+        pool.pin("req-1", first);
+
+        assertThat(pool.select("req-1", null)).isSameAs(first);
+        assertThat(pool.getStatistics()).containsEntry("pinnedRequests", 0);
+    }
+
+    @Test
+    @DisplayName("A request unknown to an endpoint is looked for at the healthy endpoints first")
+    void others_healthyFirst() {
+        tsbProperties.setTsbRestApis(List.of("https://tsb-2", "https://tsb-3"));
+        TsbEndpointPool.Endpoint third = pool.getEndpoints().get(2);
+        call(second, 10);
+        call(third, 100);
+
+        assertThat(pool.others(first)).containsExactly(second, third);
+
+        pool.probed(second, false, 0);
+        pool.probed(second, false, 0);
+
+        assertThat(pool.others(first)).containsExactly(third, second);
+    }
+
+    private void call(TsbEndpointPool.Endpoint endpoint, long latencyMillis) {
+        pool.started(endpoint);
+        pool.succeeded(endpoint, latencyMillis);
+    }
+
+    private long latencyMillis(TsbEndpointPool.Endpoint endpoint) {
+        return (long) statistics(endpoint).get("latencyMillis");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> statistics(TsbEndpointPool.Endpoint endpoint) {
+        return (Map<String, Object>) pool.getStatistics().get(endpoint.getUrl());
+    }
+}
@@ -0,0 +1,158 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.exceptions.BusinessException;
+import com.securosys.fireblocks.business.exceptions.BusinessReason;
+import com.securosys.fireblocks.business.service.TsbRetryPolicy;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLHandshakeException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TsbRetryPolicyTest {
+
+    private TsbProperties.Retry settings;
+    private TsbRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        TsbProperties tsbProperties = new TsbProperties();
+        settings = tsbProperties.getRetry();
+        settings.setMaxAttempts(3);
+        settings.setBudgetMaxRetries(100);
+        retryPolicy = new TsbRetryPolicy(tsbProperties);
+    }
+
+    @Test
+    @DisplayName("Calls that could not connect are retried for all operations")
+    void connectFailures_retriedForAllOperations() {
+        List<Throwable> notSent = List.of(
+                new ConnectException("Connection refused"),
+                new ConnectTimeoutException("Connect timed out"),
+                new UnknownHostException("tsb"));
+
+        for (Throwable cause : notSent) {
+            assertThat(retryPolicy.shouldRetry(1, false, failed(cause))).as(cause.toString()).isTrue();
+            assertThat(retryPolicy.shouldRetry(1, true, failed(cause))).as(cause.toString()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Timeouts and broken connections are retried for idempotent operations only")
+    void otherIoFailures_retriedForIdempotentOnly() {
+        List<Throwable> maybeSent = List.of(
+                new SocketTimeoutException("Read timed out"),
+                new SocketException("Connection reset"),
+                new IOException("Premature end of stream"));
+
+        for (Throwable cause : maybeSent) {
+            assertThat(retryPolicy.shouldRetry(1, false, failed(cause))).as(cause.toString()).isFalse();
+            assertThat(retryPolicy.shouldRetry(1, true, failed(cause))).as(cause.toString()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("TLS failures and calls refused by the circuit breaker are not retried")
+    void nonTransportFailures_notRetried() {
+        assertThat(retryPolicy.shouldRetry(1, true, failed(new SSLHandshakeException("bad certificate")))).isFalse();
+        assertThat(retryPolicy.shouldRetry(1, true,
+                new BusinessException("circuit is open", BusinessReason.ERROR_TSB_UNAVAILABLE))).isFalse();
+        assertThat(retryPolicy.shouldRetry(1, true, new IllegalStateException("bug"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("HTTP 502, 503 and 504 are retried for idempotent operations only")
+    void transientStatus_retriedForIdempotentOnly() {
+        for (int statusCode : new int[] {502, 503, 504}) {
+            assertThat(retryPolicy.shouldRetry(1, false, statusCode)).as("HTTP " + statusCode).isFalse();
+            assertThat(retryPolicy.shouldRetry(1, true, statusCode)).as("HTTP " + statusCode).isTrue();
+        }
+        for (int statusCode : new int[] {200, 401, 404, 500}) {
+            assertThat(retryPolicy.shouldRetry(1, true, statusCode)).as("HTTP " + statusCode).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("No retry after maxAttempts attempts or when retries are disabled")
+    void maxAttemptsAndDisabled() {
+        assertThat(retryPolicy.shouldRetry(2, true, 503)).isTrue();
+        assertThat(retryPolicy.shouldRetry(3, true, 503)).isFalse();
+
+        settings.setEnabled(false);
+
+        assertThat(retryPolicy.shouldRetry(1, true, 503)).isFalse();
+        assertThat(retryPolicy.shouldRetry(1, false, failed(new ConnectException("Connection refused")))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Retries are taken from the budget and refused once it is exhausted")
+    void budget_exhausted() {
+        TsbProperties tsbProperties = new TsbProperties();
+        tsbProperties.getRetry().setBudgetMaxRetries(2);
+        TsbRetryPolicy policy = new TsbRetryPolicy(tsbProperties);
+
+        assertThat(policy.shouldRetry(1, true, 503)).isTrue();
+        assertThat(policy.shouldRetry(1, true, 503)).isTrue();
+        assertThat(policy.shouldRetry(1, true, 503)).isFalse();
+
+        assertThat(policy.getStatistics())
+                .containsEntry("retries", 2L)
+                .containsEntry("budgetExhausted", 1L)
+                .containsEntry("budget", 0);
+    }
+
+    @Test
+    @DisplayName("Every call adds budgetRatio of a retry, up to budgetMaxRetries")
+    void budget_accruesPerCall() {
+        TsbProperties tsbProperties = new TsbProperties();
+        tsbProperties.getRetry().setBudgetMaxRetries(2);
+        tsbProperties.getRetry().setBudgetRatio(0.25);
+        TsbRetryPolicy policy = new TsbRetryPolicy(tsbProperties);
+        policy.shouldRetry(1, true, 503);
+        policy.shouldRetry(1, true, 503);
+
+        for (int i = 0; i < 3; i++) {
+            policy.recordCall();
+        }
+        assertThat(policy.shouldRetry(1, true, 503)).isFalse();
+
+        policy.recordCall();
+        assertThat(policy.shouldRetry(1, true, 503)).isTrue();
+
+        for (int i = 0; i < 100; i++) {
+            policy.recordCall();
+        }
+        assertThat(policy.getStatistics()).containsEntry("budget", 2);
+    }
+
+    @Test
+    @DisplayName("The backoff is random up to the doubled initial backoff, capped at maxBackoffMillis")
+    void backoff_exponentialWithJitter() {
+        settings.setInitialBackoffMillis(100);
+        settings.setMaxBackoffMillis(300);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(retryPolicy.backoffMillis(1)).isBetween(0L, 100L);
+            assertThat(retryPolicy.backoffMillis(2)).isBetween(0L, 200L);
+            assertThat(retryPolicy.backoffMillis(5)).isBetween(0L, 300L);
+        }
+    }
+
+    // as thrown by TsbService for a call without an answer
+    private static BusinessException failed(Throwable cause) {
+        return new BusinessException("Error executing request", BusinessReason.ERROR_IN_SUBSYSTEM, cause);
+    }
+}
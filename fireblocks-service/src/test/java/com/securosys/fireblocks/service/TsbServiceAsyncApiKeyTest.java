@@ -0,0 +1,104 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.service.AuthState;
+import com.securosys.fireblocks.business.service.TsbService;
+import com.securosys.fireblocks.configuration.ApiKeyTypes;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TsbServiceAsyncApiKeyTest {
+
+    private static final int CONCURRENT_REQUESTS = 4;
+
+    private StubTsb tsb;
+    private AuthState authState;
+    private TsbService tsbService;
+    private final Queue<String> sentKeys = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tsb = new StubTsb();
+
+        ApiKeyTypes apiAuthentication = new ApiKeyTypes();
+        apiAuthentication.setEnabled(true);
+        apiAuthentication.setKeyOperationToken(List.of("k1", "k2", "k3"));
+        TsbProperties tsbProperties = new TsbProperties();
+        tsbProperties.setApiAuthentication(apiAuthentication);
+
+        authState = new AuthState();
+        tsbService = tsb.tsbService(tsbProperties, authState);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tsb.close();
+    }
+
+    @Test
+    @DisplayName("Concurrent async requests rejected with the same key roll it over only once")
+    void rollsOverOnceForConcurrentRejections() {
+        // all requests are sent with k1 before the first rejection is answered
+        CountDownLatch allSentWithFirstKey = new CountDownLatch(CONCURRENT_REQUESTS);
+        tsb.handle("/v1/sign", exchange -> {
+            String apiKey = exchange.getRequestHeaders().getFirst("X-API-KEY");
+            sentKeys.add(apiKey);
+            if ("k1".equals(apiKey)) {
+                allSentWithFirstKey.countDown();
+                try {
+                    allSentWithFirstKey.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                StubTsb.respond(exchange, 401, "{\"errorCode\":631,\"reason\":\"invalid API key\"}");
+            } else {
+                StubTsb.respond(exchange, 200, "{\"signRequestId\":\"req-1\"}");
+            }
+        });
+
+        List<CompletableFuture<String>> requests = IntStream.range(0, CONCURRENT_REQUESTS)
+                .mapToObj(i -> tsbService.signAsync("key", null, "00", "HEX", "RAW", "EDDSA", null, null))
+                .toList();
+
+        assertThat(requests).allSatisfy(request -> assertThat(request.orTimeout(10, TimeUnit.SECONDS).join()).isEqualTo("req-1"));
+        assertThat(authState.getKeyOperationTokenIndex()).isEqualTo(1);
+        assertThat(sentKeys).containsOnly("k1", "k2");
+        assertThat(sentKeys).filteredOn("k2"::equals).hasSize(CONCURRENT_REQUESTS);
+    }
+
+    @Test
+    @DisplayName("An async request is sent with each configured key until one is accepted")
+    void rollsOverUntilAccepted() {
+        tsb.handle("/v1/sign", exchange -> {
+            String apiKey = exchange.getRequestHeaders().getFirst("X-API-KEY");
+            sentKeys.add(apiKey);
+            if ("k3".equals(apiKey)) {
+                StubTsb.respond(exchange, 200, "{\"signRequestId\":\"req-1\"}");
+            } else {
+                StubTsb.respond(exchange, 401, "{\"errorCode\":631,\"reason\":\"invalid API key\"}");
+            }
+        });
+
+        String requestId = tsbService.signAsync("key", null, "00", "HEX", "RAW", "EDDSA", null, null)
+                .orTimeout(10, TimeUnit.SECONDS).join();
+
+        assertThat(requestId).isEqualTo("req-1");
+        assertThat(authState.getKeyOperationTokenIndex()).isEqualTo(2);
+        assertThat(sentKeys).containsExactly("k1", "k2", "k3");
+    }
+}
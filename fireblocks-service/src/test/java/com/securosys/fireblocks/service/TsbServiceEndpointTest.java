@@ -0,0 +1,172 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.dto.response.RequestStatusResponseDto;
+import com.securosys.fireblocks.business.exceptions.BusinessException;
+import com.securosys.fireblocks.business.service.AuthState;
+import com.securosys.fireblocks.business.service.TsbEndpointPool;
+import com.securosys.fireblocks.business.service.TsbService;
+import com.securosys.fireblocks.configuration.ApiKeyTypes;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TsbServiceEndpointTest {
+
+    private static final String EXECUTED = "{\"id\":\"req-1\",\"status\":\"EXECUTED\",\"result\":\"00\"}";
+    private static final String INVALID_API_KEY = "{\"errorCode\":631,\"reason\":\"invalid API key\"}";
+
+    private StubTsb first;
+    private StubTsb second;
+    private TsbProperties tsbProperties;
+    private AuthState authState;
+    private TsbEndpointPool endpointPool;
+    private TsbService tsbService;
+    private final AtomicInteger firstCalls = new AtomicInteger();
+    private final AtomicInteger secondCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        first = new StubTsb();
+        second = new StubTsb();
+
+        ApiKeyTypes apiAuthentication = new ApiKeyTypes();
+        apiAuthentication.setEnabled(true);
+        apiAuthentication.setServiceToken(List.of("s1", "s2"));
+        tsbProperties = new TsbProperties();
+        tsbProperties.setTsbRestApi(first.url());
+        tsbProperties.setTsbRestApis(List.of(second.url()));
+        tsbProperties.setApiAuthentication(apiAuthentication);
+        tsbProperties.getEndpoints().setProbeTimeoutMillis(300);
+        tsbProperties.getCircuitBreaker().setFailureThreshold(1);
+        tsbProperties.getRetry().setEnabled(false);
+
+        authState = new AuthState();
+        endpointPool = new TsbEndpointPool(tsbProperties);
+        tsbService = first.tsbService(tsbProperties, authState, endpointPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.close();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("A status poll answered with HTTP 404 is looked up at the other endpoint and pinned there")
+    void getRequest_notFound_lookedUpAndPinned() {
+        first.handle("/v1/request/", exchange -> {
+            firstCalls.incrementAndGet();
+            StubTsb.respond(exchange, 404, "{}");
+        });
+        second.handle("/v1/request/", exchange -> {
+            secondCalls.incrementAndGet();
+            StubTsb.respond(exchange, 200, EXECUTED);
+        });
+
+        RequestStatusResponseDto status = tsbService.getRequest("req-1");
+
+        assertThat(status.getStatus()).isEqualTo("EXECUTED");
+        assertThat(firstCalls).hasValue(1);
+        assertThat(secondCalls).hasValue(1);
+
+        tsbService.getRequest("req-1");
+
+        assertThat(firstCalls).hasValue(1);
+        assertThat(secondCalls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("An async status poll answered with HTTP 404 is looked up at the other endpoint and pinned there")
+    void getRequestAsync_notFound_lookedUpAndPinned() {
+        first.handle("/v1/request/", exchange -> {
+            firstCalls.incrementAndGet();
+            StubTsb.respond(exchange, 404, "{}");
+        });
+        second.handle("/v1/request/", exchange -> {
+            secondCalls.incrementAndGet();
+            StubTsb.respond(exchange, 200, EXECUTED);
+        });
+
+        RequestStatusResponseDto status = tsbService.getRequestAsync("req-1").orTimeout(10, TimeUnit.SECONDS).join();
+
+        assertThat(status.getStatus()).isEqualTo("EXECUTED");
+        tsbService.getRequestAsync("req-1").orTimeout(10, TimeUnit.SECONDS).join();
+        assertThat(firstCalls).hasValue(1);
+        assertThat(secondCalls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Calls go to another endpoint while the circuit of the operation is open on the selected one")
+    void select_skipsOpenCircuit() {
+        first.handle("/v1/request/", exchange -> {
+            firstCalls.incrementAndGet();
+            StubTsb.respond(exchange, 503, "{}");
+        });
+        second.handle("/v1/request/", exchange -> {
+            secondCalls.incrementAndGet();
+            StubTsb.respond(exchange, 200, EXECUTED);
+        });
+        // opens the circuit, while a single failure leaves the endpoint healthy
+        assertThatThrownBy(() -> tsbService.getRequest("req-2")).isInstanceOf(BusinessException.class);
+        assertThat(endpointPool.getEndpoints().get(0).isHealthy()).isTrue();
+
+        RequestStatusResponseDto status = tsbService.getRequest("req-1");
+
+        assertThat(status.getStatus()).isEqualTo("EXECUTED");
+        assertThat(firstCalls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("A probe rejected with an invalid API key counts as healthy and does not roll the key over")
+    void probe_invalidApiKey_healthyWithoutRollover() {
+        TsbEndpointPool.Endpoint endpoint = endpointPool.getEndpoints().get(0);
+        endpointPool.probed(endpoint, false, 0);
+        endpointPool.probed(endpoint, false, 0);
+        first.handle("/v1/licenseInfo", exchange -> {
+            firstCalls.incrementAndGet();
+            StubTsb.respond(exchange, 401, INVALID_API_KEY);
+        });
+        second.handle("/v1/licenseInfo", exchange -> StubTsb.respond(exchange, 200, "{}"));
+
+        tsbService.probeEndpoints();
+
+        assertThat(endpoint.isHealthy()).isTrue();
+        assertThat(firstCalls).hasValue(1);
+        assertThat(authState.getKeyServiceTokenIndex()).isZero();
+    }
+
+    @Test
+    @DisplayName("A probe waits for the answer at most probeTimeoutMillis")
+    void probe_timeout() {
+        TsbEndpointPool.Endpoint endpoint = endpointPool.getEndpoints().get(1);
+        first.handle("/v1/licenseInfo", exchange -> StubTsb.respond(exchange, 200, "{}"));
+        second.handle("/v1/licenseInfo", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            StubTsb.respond(exchange, 200, "{}");
+        });
+
+        long start = System.nanoTime();
+        tsbService.probeEndpoints();
+        tsbService.probeEndpoints();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+        assertThat(endpoint.isHealthy()).isFalse();
+    }
+}
@@ -0,0 +1,162 @@
+// SPDX-FileCopyrightText: Copyright 2025 Securosys SA
+// SPDX-License-Identifier: Apache-2.0
+
+package com.securosys.fireblocks.service;
+
+import com.securosys.fireblocks.business.dto.response.RequestStatusResponseDto;
+import com.securosys.fireblocks.business.exceptions.BusinessException;
+import com.securosys.fireblocks.business.service.AuthState;
+import com.securosys.fireblocks.business.service.TsbService;
+import com.securosys.fireblocks.configuration.TsbProperties;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TsbServiceRetryTest {
+
+    private static final String PENDING = "{\"id\":\"req-1\",\"status\":\"PENDING\",\"result\":null}";
+
+    private StubTsb tsb;
+    private TsbService tsbService;
+    private final AtomicInteger signPosts = new AtomicInteger();
+    private final AtomicInteger statusCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tsb = new StubTsb();
+
+        TsbProperties tsbProperties = new TsbProperties();
+        tsbProperties.getConnectionPool().setSocketTimeoutSeconds(1);
+        tsbProperties.getRetry().setInitialBackoffMillis(1);
+        tsbService = tsb.tsbService(tsbProperties, new AuthState());
+    }
+
+    @AfterEach
+    void tearDown() {
+        tsb.close();
+    }
+
+    @Test
+    @DisplayName("A sign call is not sent again after a read timeout")
+    void sign_readTimeout_notResent() {
+        tsb.handle("/v1/sign", exchange -> {
+            countSignPost(exchange);
+            answerAfterTimeout(exchange, "{\"signRequestId\":\"req-1\"}");
+        });
+
+        assertThatThrownBy(() -> tsbService.sign("key", null, "00", "HEX", "RAW", "EDDSA", null, null))
+                .isInstanceOf(BusinessException.class)
+                .hasCauseInstanceOf(SocketTimeoutException.class);
+
+        assertThat(signPosts).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("An async sign call is not sent again after a read timeout")
+    void signAsync_readTimeout_notResent() {
+        tsb.handle("/v1/sign", exchange -> {
+            countSignPost(exchange);
+            answerAfterTimeout(exchange, "{\"signRequestId\":\"req-1\"}");
+        });
+
+        assertThatThrownBy(() -> tsbService.signAsync("key", null, "00", "HEX", "RAW", "EDDSA", null, null)
+                .orTimeout(10, TimeUnit.SECONDS).join())
+                .isInstanceOf(CompletionException.class)
+                .hasRootCauseInstanceOf(SocketTimeoutException.class);
+
+        // a retry would have been sent before the future completed
+        assertThat(signPosts).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("A sign call answered with HTTP 503 is not sent again")
+    void sign_serviceUnavailable_notResent() {
+        tsb.handle("/v1/sign", exchange -> {
+            countSignPost(exchange);
+            StubTsb.respond(exchange, 503, "{}");
+        });
+
+        assertThatThrownBy(() -> tsbService.sign("key", null, "00", "HEX", "RAW", "EDDSA", null, null))
+                .isInstanceOf(BusinessException.class);
+
+        assertThat(signPosts).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("An async sign call answered with HTTP 503 is not sent again")
+    void signAsync_serviceUnavailable_notResent() {
+        tsb.handle("/v1/sign", exchange -> {
+            countSignPost(exchange);
+            StubTsb.respond(exchange, 503, "{}");
+        });
+
+        assertThatThrownBy(() -> tsbService.signAsync("key", null, "00", "HEX", "RAW", "EDDSA", null, null)
+                .orTimeout(10, TimeUnit.SECONDS).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(BusinessException.class);
+
+        assertThat(signPosts).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("A status poll is sent again after a read timeout")
+    void getRequest_readTimeout_resent() {
+        tsb.handle("/v1/request/", exchange -> {
+            if (statusCalls.incrementAndGet() == 1) {
+                answerAfterTimeout(exchange, PENDING);
+            } else {
+                StubTsb.respond(exchange, 200, PENDING);
+            }
+        });
+
+        RequestStatusResponseDto status = tsbService.getRequest("req-1");
+
+        assertThat(status.getStatus()).isEqualTo("PENDING");
+        assertThat(statusCalls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("An async status poll answered with HTTP 503 is sent again")
+    void getRequestAsync_serviceUnavailable_resent() {
+        tsb.handle("/v1/request/", exchange -> {
+            if (statusCalls.incrementAndGet() == 1) {
+                StubTsb.respond(exchange, 503, "{}");
+            } else {
+                StubTsb.respond(exchange, 200, PENDING);
+            }
+        });
+
+        RequestStatusResponseDto status = tsbService.getRequestAsync("req-1").orTimeout(10, TimeUnit.SECONDS).join();
+
+        assertThat(status.getStatus()).isEqualTo("PENDING");
+        assertThat(statusCalls).hasValue(2);
+    }
+
+    private void countSignPost(HttpExchange exchange) {
+        if ("POST".equals(exchange.getRequestMethod())) {
+            signPosts.incrementAndGet();
+        }
+    }
+
+    // the TSB received the call, but answers only after the client stopped waiting
+    private static void answerAfterTimeout(HttpExchange exchange, String body) throws IOException {
+        try {
+            Thread.sleep(1500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        StubTsb.respond(exchange, 200, body);
+    }
+}